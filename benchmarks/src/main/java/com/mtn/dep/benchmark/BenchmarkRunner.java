@@ -0,0 +1,54 @@
+package com.mtn.dep.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *
+ * Runs the benchmarks with the GC profiler enabled, once for every thread count from 1 up to the
+ * number of available processors (doubling every run), so that both the time and the allocation
+ * rate per operation are reported at each level of concurrency.
+ *
+ * Any standard JMH command line options, such as a benchmark name pattern, are passed on to JMH.
+ * An explicit thread count (-t) runs only that thread count.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+
+		if (commandLine.getThreads().hasValue()) {
+			new Runner(options(commandLine).build()).run();
+
+			return;
+		}
+
+		int processors = Runtime.getRuntime().availableProcessors();
+
+		for (int threads = 1; threads <= processors; threads = nextThreadCount(threads, processors)) {
+			new Runner(options(commandLine).threads(threads).build()).run();
+		}
+	}
+
+	private static ChainedOptionsBuilder options(CommandLineOptions commandLine) {
+		return new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class);
+	}
+
+	private static int nextThreadCount(int threads, int processors) {
+		if (threads < processors && threads * 2 > processors) {
+			return processors;
+		}
+
+		return threads * 2;
+	}
+}
@@ -0,0 +1,79 @@
+package com.mtn.dep.service;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * Measures the full path a caller takes: building a DEPAuthentication and creating its headers,
+ * for GET and DELETE requests, and for POST requests with a small and a 1 MB body.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationHeadersBenchmark {
+
+	@Param({ "64", "1048576" })
+	public int bodySize;
+
+	private String body;
+
+	private QueryStringProcessor query;
+
+	private ZonedDateTime timestamp;
+
+	@Setup
+	public void setUp() {
+		body = Bodies.json(bodySize);
+		timestamp = ZonedDateTime.now();
+		query = new QueryStringProcessor();
+		query.addQueryParameter("msisdn", "27831234567");
+		query.addQueryParameter("page", "1");
+	}
+
+	@Benchmark
+	public AuthenticationHeaders get() throws DEPValidationException {
+		return builder(HttpMethod.GET).queryStringProcessor(query).build().createAuthenticationHeaders();
+	}
+
+	@Benchmark
+	public AuthenticationHeaders delete() throws DEPValidationException {
+		return builder(HttpMethod.DELETE).build().createAuthenticationHeaders();
+	}
+
+	@Benchmark
+	public AuthenticationHeaders post() throws DEPValidationException {
+		return builder(HttpMethod.POST).body(body).build().createAuthenticationHeaders();
+	}
+
+	private DEPAuthentication.DEPAuthenticationBuilder builder(HttpMethod httpMethod) {
+		return DEPAuthentication
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.httpMethod(httpMethod)
+				.requestPath("/subscription/50273440")
+				.timestamp(timestamp)
+				.hostName("api.dep.mtn.co.za");
+	}
+}
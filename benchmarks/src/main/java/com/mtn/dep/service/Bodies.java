@@ -0,0 +1,25 @@
+package com.mtn.dep.service;
+
+/**
+ *
+ * Creates JSON bodies of a given size for the benchmarks.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+final class Bodies {
+
+	private Bodies() {}
+
+	static String json(int size) {
+		StringBuilder builder = new StringBuilder(size);
+
+		builder.append("{\"data\":\"");
+
+		while (builder.length() < size - 2) {
+			builder.append((char) ('a' + builder.length() % 26));
+		}
+
+		return builder.append("\"}").toString();
+	}
+}
@@ -0,0 +1,72 @@
+package com.mtn.dep.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * Measures the hashing stages in isolation: hashing the payload, and hashing the canonical request
+ * followed by the final HMAC of the string to sign, with the signing key and payload hash supplied up front.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CanonicalRequestBenchmark {
+
+	@Param({ "64", "1048576" })
+	public int bodySize;
+
+	private Payload payload;
+
+	private HmacSha256Key signingKey;
+
+	private String payloadHash;
+
+	@Setup
+	public void setUp() throws InvalidKeyException {
+		payload = Payload.of(Bodies.json(bodySize));
+		payloadHash = payload.hashHex(CryptoContext.get());
+		signingKey = HmacSha256Key.of(CryptoContext.get().deriveSigningKey("AWS4TESTSECRET".getBytes(StandardCharsets.UTF_8), "20300101", "eu-west-1", "execute-api", "aws4_request"));
+	}
+
+	@Benchmark
+	public String payloadHash() {
+		return payload.hashHex(CryptoContext.get());
+	}
+
+	@Benchmark
+	public String canonicalRequestAndSignature() {
+		return AuthenticationService
+			.builder()
+				.accessSecret("TESTSECRET")
+				.httpMethod("POST")
+				.requestPath("/subscription")
+				.queryString("msisdn=27831234567&page=1&size=50")
+				.requestDate("20300101")
+				.timestamp("20300101T100000Z")
+				.payloadHash(payloadHash)
+				.hostName("host:api.dep.mtn.co.za")
+				.signingKey(signingKey)
+			.build()
+			.generateSignature();
+	}
+}
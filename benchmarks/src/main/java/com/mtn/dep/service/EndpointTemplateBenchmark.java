@@ -0,0 +1,64 @@
+package com.mtn.dep.service;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * Compares signing a GET request through a DEPSigner with signing it through an EndpointTemplate,
+ * for a short request path and for one that fills a complete SHA-256 block.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndpointTemplateBenchmark {
+
+	@Param({ "/subscription/50273440", "/provisioning/v2/subscriptions/50273440/services/1234/activations/latest" })
+	public String requestPath;
+
+	private DEPSigner signer;
+
+	private EndpointTemplate endpoint;
+
+	private QueryStringProcessor query;
+
+	private Instant timestamp;
+
+	@Setup
+	public void setUp() throws DEPValidationException {
+		signer = DEPSigner.builder().accessKey("TESTKEY").accessSecret("TESTSECRET").hostName("api.dep.mtn.co.za").build();
+		endpoint = signer.endpoint(HttpMethod.GET, requestPath);
+		query = QueryTemplate.compile("msisdn", "page").bind("27831234567", "1");
+		timestamp = Instant.now();
+	}
+
+	@Benchmark
+	public AuthenticationHeaders signer() {
+		return signer.sign(HttpMethod.GET, requestPath, query, (Payload) null, timestamp);
+	}
+
+	@Benchmark
+	public AuthenticationHeaders endpoint() {
+		return endpoint.sign(query, null, timestamp);
+	}
+}
@@ -0,0 +1,52 @@
+package com.mtn.dep.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * Measures the derivation of the signing key: the full four step HMAC chain, and a lookup in the
+ * signing key cache that steady-state signing pays instead.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyDerivationBenchmark {
+
+	private final byte[] secret = "AWS4TESTSECRET".getBytes(StandardCharsets.UTF_8);
+
+	private final SigningKeyCache cache = new SigningKeyCache(SigningKeyCache.DEFAULT_MAXIMUM_SIZE);
+
+	@Benchmark
+	public byte[] deriveSigningKey() throws InvalidKeyException {
+		return CryptoContext.get().deriveSigningKey(secret, "20300101", "eu-west-1", "execute-api", "aws4_request");
+	}
+
+	@Benchmark
+	public HmacSha256Key cachedSigningKey() throws InvalidKeyException {
+		return AuthenticationService
+			.builder()
+				.accessSecret("TESTSECRET")
+				.requestDate("20300101")
+				.signingKeyCache(cache)
+			.build()
+			.getSigningKey();
+	}
+}
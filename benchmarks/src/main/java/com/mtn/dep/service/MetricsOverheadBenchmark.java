@@ -0,0 +1,132 @@
+package com.mtn.dep.service;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * Measures the cost of the metrics hooks by signing the same POST request without metrics, and with a
+ * SigningMetrics implementation that times every stage and adds the timings to counters. Since the
+ * difference is small next to the time a signature takes, the hooks a signature calls are also run on
+ * their own, once with SigningMetrics.NOOP and once with the counting implementation.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+	private static final String BODY = "{\"msisdn\":\"27831234567\",\"serviceId\":1234,\"channel\":\"USSD\"}";
+
+	private DEPSigner withoutMetrics;
+
+	private DEPSigner withMetrics;
+
+	private Instant timestamp;
+
+	private SigningMetrics noop = SigningMetrics.NOOP;
+
+	private SigningMetrics counting = new CountingMetrics();
+
+	@Setup
+	public void setUp() throws DEPValidationException {
+		withoutMetrics = DEPSigner.builder().accessKey("TESTKEY").accessSecret("TESTSECRET").hostName("api.dep.mtn.co.za").build();
+		withMetrics = DEPSigner.builder().accessKey("TESTKEY").accessSecret("TESTSECRET").hostName("api.dep.mtn.co.za")
+				.metrics(new CountingMetrics()).build();
+		timestamp = Instant.now();
+	}
+
+	@Benchmark
+	public AuthenticationHeaders withoutMetrics() {
+		return withoutMetrics.sign(HttpMethod.POST, "/subscription", null, BODY, timestamp);
+	}
+
+	@Benchmark
+	public AuthenticationHeaders withMetrics() {
+		return withMetrics.sign(HttpMethod.POST, "/subscription", null, BODY, timestamp);
+	}
+
+	@Benchmark
+	public long hooksDisabled() {
+		return callHooks(noop);
+	}
+
+	@Benchmark
+	public long hooksEnabled() {
+		return callHooks(counting);
+	}
+
+	/**
+	 * Calls the hooks in the way AuthenticationService and DEPSigner call them for a POST with a body.
+	 */
+	private static long callHooks(SigningMetrics metrics) {
+		if (!metrics.isEnabled()) {
+			return 0;
+		}
+
+		long start = System.nanoTime();
+		long hashed = System.nanoTime();
+
+		metrics.recordPayloadHashing(hashed - start, BODY.length());
+		metrics.recordKeyCacheHit();
+
+		long canonicalized = System.nanoTime();
+
+		metrics.recordCanonicalization(canonicalized - hashed);
+
+		long signed = System.nanoTime();
+
+		metrics.recordSignature(signed - canonicalized);
+
+		return signed;
+	}
+
+	private static final class CountingMetrics implements SigningMetrics {
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder keyCacheHits = new LongAdder();
+
+		@Override
+		public void recordPayloadHashing(long nanos, long payloadSize) {
+			this.nanos.add(nanos);
+		}
+
+		@Override
+		public void recordCanonicalization(long nanos) {
+			this.nanos.add(nanos);
+		}
+
+		@Override
+		public void recordKeyDerivation(long nanos) {
+			this.nanos.add(nanos);
+		}
+
+		@Override
+		public void recordKeyCacheHit() {
+			keyCacheHits.increment();
+		}
+
+		@Override
+		public void recordSignature(long nanos) {
+			this.nanos.add(nanos);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.mtn.dep.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * Measures the QueryStringProcessor: encoding and adding parameters, and building the sorted,
+ * encoded query string that forms part of the canonical request. The same query is also built
+ * by binding the values to a compiled QueryTemplate.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryStringBenchmark {
+
+	private QueryStringProcessor processor;
+
+	private final QueryTemplate template = QueryTemplate.compile("msisdn", "page", "size", "expand");
+
+	@Setup
+	public void setUp() {
+		processor = addParameters(new QueryStringProcessor());
+	}
+
+	@Benchmark
+	public QueryStringProcessor addQueryParameter() {
+		return addParameters(new QueryStringProcessor());
+	}
+
+	@Benchmark
+	public String getQueryString() {
+		return processor.getQueryString(true);
+	}
+
+	@Benchmark
+	public String bindQueryTemplate() {
+		return template.bind("27831234567", "1", "50", "subscription(status=2,page=1,svc_id=1)").getQueryString(true);
+	}
+
+	private static QueryStringProcessor addParameters(QueryStringProcessor processor) {
+		processor.addQueryParameter("msisdn", "27831234567");
+		processor.addQueryParameter("page", "1");
+		processor.addQueryParameter("size", "50");
+		processor.addQueryParameter("expand", "subscription(status=2,page=1,svc_id=1)");
+
+		return processor;
+	}
+}
@@ -0,0 +1,85 @@
+package com.mtn.dep.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * Measures the verification rate of the DEPSignatureVerifier for a signed GET request with a query
+ * string, both for a request that was already built and for one built from the raw request parts,
+ * as a gateway receives them. Run with multiple threads to see the rate per core.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureVerifierBenchmark {
+
+	private static final String RAW_QUERY = "msisdn=27831234567&page=1&expand=subscription%28status%3D2%29";
+
+	private DEPSignatureVerifier verifier;
+
+	private AuthenticationHeaders headers;
+
+	private VerificationRequest request;
+
+	@Setup
+	public void setUp() throws DEPValidationException {
+		Instant timestamp = Instant.now();
+		DEPSigner signer = DEPSigner.builder().accessKey("TESTKEY").accessSecret("TESTSECRET").hostName("api.dep.mtn.co.za").build();
+
+		headers = signer.sign(HttpMethod.GET, "/subscription", QueryStringProcessor.parse(RAW_QUERY), (String) null, timestamp);
+		verifier = DEPSignatureVerifier
+			.builder()
+				.secretResolver(accessKey -> "TESTSECRET")
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+			.build();
+		request = buildRequest();
+
+		if (!verifier.verify(request).isValid()) {
+			throw new IllegalStateException("The benchmark request does not verify.");
+		}
+	}
+
+	@Benchmark
+	public VerificationResult verify() {
+		return verifier.verify(request);
+	}
+
+	@Benchmark
+	public VerificationResult buildAndVerify() throws DEPValidationException {
+		return verifier.verify(buildRequest());
+	}
+
+	private VerificationRequest buildRequest() throws DEPValidationException {
+		return VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.GET)
+				.requestPath("/subscription")
+				.rawQuery(RAW_QUERY)
+				.hostName("api.dep.mtn.co.za")
+				.authorization(headers.getAuthorizationString())
+				.xAmzDate(headers.getXAmzDate())
+			.build();
+	}
+}
@@ -26,4 +26,14 @@ public interface AuthenticationHeaders {
 	 * @return The generated X-Amz-Date header as text.
 	 */
 	String getXAmzDate();
+	
+	/**
+	 * The method returns the x-amz-content-sha256 header value when the payload hash forms part
+	 * of the signed headers. This header should then form part of the REST call to the DEP platform.
+	 * 
+	 * @return The x-amz-content-sha256 header as text, or null if the header is not signed.
+	 */
+	default String getXAmzContentSha256() {
+		return null;
+	}
 }
@@ -0,0 +1,17 @@
+package com.mtn.dep.exception;
+
+/**
+ *
+ * Thrown when a request could not be signed, for example because the signing key could not be derived.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public class DEPSigningException extends RuntimeException {
+
+	private static final long serialVersionUID = 3791532260513896042L;
+
+	public DEPSigningException(String message, Throwable cause) {
+		super("Unable to sign request: " + message, cause);
+	}
+}
@@ -0,0 +1,17 @@
+package com.mtn.dep.exception;
+
+/**
+ *
+ * Thrown when the request payload could not be read while it was being hashed.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public class PayloadReadException extends RuntimeException {
+
+	private static final long serialVersionUID = -2402617436208551245L;
+
+	public PayloadReadException(Throwable cause) {
+		super("Unable to hash payload: The payload could not be read.", cause);
+	}
+}
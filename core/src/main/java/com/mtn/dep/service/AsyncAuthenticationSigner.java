@@ -0,0 +1,259 @@
+package com.mtn.dep.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mtn.dep.Authentication;
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * Creates authentication headers without stalling event-loop threads (Netty, WebFlux, ...). Requests with
+ * a body below the inline threshold are signed on the calling thread, since handing them off would cost more
+ * than hashing them. Larger bodies, and bodies of which the size is not known up front, are hashed on a
+ * bounded pool of worker threads. When the queue of the pool is full the returned future fails with a
+ * RejectedExecutionException, so that callers can shed load instead of blocking the event loop.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class AsyncAuthenticationSigner implements AutoCloseable {
+
+	/**
+	 * The body size, in bytes, below which requests are signed on the calling thread.
+	 */
+	public static final long DEFAULT_INLINE_THRESHOLD = 16 * 1024;
+
+	/**
+	 * The number of requests that can wait for a worker thread before new requests are rejected.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	private final long inlineThreshold;
+	private final ThreadPoolExecutor executor;
+
+	private final LongAdder inlineCount = new LongAdder();
+	private final LongAdder offloadedCount = new LongAdder();
+	private final LongAdder rejectedCount = new LongAdder();
+	private final LongAdder startedCount = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final LongAccumulator maximumWaitNanos = new LongAccumulator(Math::max, 0);
+
+	private AsyncAuthenticationSigner(AsyncAuthenticationSignerBuilder builder) {
+		this.inlineThreshold = builder.inlineThreshold;
+		this.executor = new ThreadPoolExecutor(builder.workerThreads, builder.workerThreads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(builder.queueCapacity), new WorkerThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * An implementation of the builder pattern. All fields are optional.
+	 *
+	 * @return An instance of AsyncAuthenticationSignerBuilder.
+	 */
+	public static AsyncAuthenticationSignerBuilder builder() {
+		return new AsyncAuthenticationSignerBuilder();
+	}
+
+	/**
+	 * Creates the authentication headers, either on the calling thread or on a worker thread depending on
+	 * the size of the body.
+	 *
+	 * @param authentication The request to create the headers for.
+	 * @return A future that completes with the headers, or fails with a RejectedExecutionException if
+	 * the worker pool is saturated.
+	 */
+	public CompletableFuture<AuthenticationHeaders> createAuthenticationHeaders(Authentication authentication) {
+		CompletableFuture<AuthenticationHeaders> result = new CompletableFuture<>();
+
+		if (shouldSignInline(authentication)) {
+			inlineCount.increment();
+
+			complete(result, authentication);
+
+			return result;
+		}
+
+		long queuedAt = System.nanoTime();
+
+		try {
+			offloadedCount.increment();
+
+			executor.execute(() -> {
+				recordWaitTime(System.nanoTime() - queuedAt);
+
+				complete(result, authentication);
+			});
+		} catch (RejectedExecutionException e) {
+			offloadedCount.decrement();
+			rejectedCount.increment();
+
+			result.completeExceptionally(e);
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return The number of requests waiting for a worker thread.
+	 */
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * @return The number of requests that were signed on the calling thread.
+	 */
+	public long getInlineCount() {
+		return inlineCount.sum();
+	}
+
+	/**
+	 * @return The number of requests that were handed to a worker thread.
+	 */
+	public long getOffloadedCount() {
+		return offloadedCount.sum();
+	}
+
+	/**
+	 * @return The number of requests that were rejected because the queue was full.
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.sum();
+	}
+
+	/**
+	 * @param unit The unit of the returned duration.
+	 * @return The average time requests waited in the queue before a worker thread picked them up.
+	 */
+	public long getAverageWaitTime(TimeUnit unit) {
+		long started = startedCount.sum();
+
+		if (started <= 0) {
+			return 0;
+		}
+
+		return unit.convert(totalWaitNanos.sum() / started, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @param unit The unit of the returned duration.
+	 * @return The longest time a request waited in the queue before a worker thread picked it up.
+	 */
+	public long getMaximumWaitTime(TimeUnit unit) {
+		return unit.convert(maximumWaitNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Stops the worker threads once the requests that were already accepted have been signed.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	private boolean shouldSignInline(Authentication authentication) {
+		if (!(authentication instanceof DEPAuthentication)) {
+			return false;
+		}
+
+		long size = ((DEPAuthentication) authentication).estimateBodySize();
+
+		return size >= 0 && size < inlineThreshold;
+	}
+
+	private void recordWaitTime(long waitNanos) {
+		startedCount.increment();
+		totalWaitNanos.add(waitNanos);
+		maximumWaitNanos.accumulate(waitNanos);
+	}
+
+	private static void complete(CompletableFuture<AuthenticationHeaders> result, Authentication authentication) {
+		try {
+			result.complete(authentication.createAuthenticationHeaders());
+		} catch (Throwable e) {
+			// Errors as well, since the caller would otherwise wait for the future forever
+			result.completeExceptionally(e);
+		}
+	}
+
+	private static final class WorkerThreadFactory implements ThreadFactory {
+		private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+		private final String prefix = "dep-signer-" + POOL_NUMBER.incrementAndGet() + "-";
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+
+			thread.setDaemon(true);
+
+			return thread;
+		}
+	}
+
+
+
+	public static class AsyncAuthenticationSignerBuilder {
+		private long inlineThreshold = DEFAULT_INLINE_THRESHOLD;
+		private int workerThreads = Runtime.getRuntime().availableProcessors();
+		private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+		private AsyncAuthenticationSignerBuilder() {}
+
+		/**
+		 * @param inlineThreshold (Optional) - The body size, in bytes, below which requests are signed on the
+		 * calling thread. Set it to 0 to always sign on a worker thread.
+		 * @return
+		 */
+		public AsyncAuthenticationSignerBuilder inlineThreshold(long inlineThreshold) {
+			this.inlineThreshold = inlineThreshold;
+
+			return this;
+		}
+
+		/**
+		 * @param workerThreads (Optional) - The number of worker threads. Defaults to the number of processors.
+		 * @return
+		 */
+		public AsyncAuthenticationSignerBuilder workerThreads(int workerThreads) {
+			this.workerThreads = workerThreads;
+
+			return this;
+		}
+
+		/**
+		 * @param queueCapacity (Optional) - The number of requests that can wait for a worker thread.
+		 * @return
+		 */
+		public AsyncAuthenticationSignerBuilder queueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+
+			return this;
+		}
+
+		/**
+		 * @return An instance of the AsyncAuthenticationSigner class.
+		 */
+		public AsyncAuthenticationSigner build() {
+			if (inlineThreshold < 0) {
+				throw new IllegalArgumentException("The inline threshold cannot be negative.");
+			}
+			if (workerThreads < 1) {
+				throw new IllegalArgumentException("The number of worker threads must be at least 1.");
+			}
+			if (queueCapacity < 1) {
+				throw new IllegalArgumentException("The queue capacity must be at least 1.");
+			}
+
+			return new AsyncAuthenticationSigner(this);
+		}
+	}
+}
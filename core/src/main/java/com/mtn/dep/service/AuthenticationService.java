@@ -0,0 +1,542 @@
+package com.mtn.dep.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+
+import com.mtn.dep.exception.DEPSigningException;
+
+/**
+ * 
+ * An implementation of the Amazon AWS authentication mechanism, used to make REST calls
+ * to the DEP platform endpoint(s).
+ * 
+ * @author Andrew Howes
+ * @since 1.8
+ * @version 1.0.0
+ */
+final class AuthenticationService {
+	
+	private String accessSecret;
+	private String httpMethod;
+	private String requestPath;
+	private String queryString = "";
+	private String requestDate;
+	private String timestamp;
+	private Payload body;
+	private String payloadHash;
+	private boolean signContentSha256;
+	private String hostName;
+	private String credentialScope;
+	private String region = DEFAULT_REGION;
+	private String service = DEFAULT_SERVICE;
+	private HmacSha256Key signingKey;
+	private EndpointTemplate endpoint;
+	private SigningMetrics metrics = SigningMetrics.NOOP;
+	private boolean presigned;
+	private SigningKeyCache signingKeyCache = SigningKeyCache.shared();
+	private String decodedContentLength;
+	
+	private final String algorithmSuit = "AWS4-HMAC-SHA256";
+	private final String amzDate = "x-amz-date:";
+	private final String hostAmzDate = "host;x-amz-date";
+	private final String hostContentSha256AmzDate = "host;x-amz-content-sha256;x-amz-date";
+	private final String hostContentSha256AmzDateDecodedContentLength = "host;x-amz-content-sha256;x-amz-date;x-amz-decoded-content-length";
+	private final String contentSha256 = "x-amz-content-sha256:";
+	private final String decodedContentLengthHeader = "x-amz-decoded-content-length:";
+	private final String host = "host";
+	
+	static final String DEFAULT_REGION = "eu-west-1";
+	static final String DEFAULT_SERVICE = "execute-api";
+	
+	private static final String SECRET_PREFIX = "AWS4";
+	
+	private static final String REQUEST_TERMINATION_STRING = "aws4_request";
+	
+	static final String EMPTY_PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+	
+	static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+	
+	/**
+	 * @throws DEPSigningException Thrown if the signing key could not be derived.
+	 */
+	public String generateSignature() {
+		return CryptoContext.toHex(generateSignatureBytes());
+	}
+	
+	/**
+	 * @return The signature as raw bytes, in a buffer bound to the CryptoContext of the current thread.
+	 * The buffer is overwritten by the next signature created on the same thread.
+	 * @throws DEPSigningException Thrown if the signing key could not be derived.
+	 */
+	byte[] generateSignatureBytes() {
+		CryptoContext context = CryptoContext.get();
+		
+		try {
+			if (metrics.isEnabled()) {
+				return createTimedSignature(context);
+			}
+			
+			byte[] step1 = createCanonicalRequestHash(context);
+			HmacSha256Key step2 = getSigningKey();
+			
+			return createSignature(context, step2, step1);
+		} catch (InvalidKeyException e) {
+			metrics.recordFailure(e);
+			
+			throw new DEPSigningException("The signing key could not be derived.", e);
+		} catch (RuntimeException e) {
+			metrics.recordFailure(e);
+			
+			throw e;
+		}
+	}
+	
+	public String getCredentialScope() {
+		return createCredentialScope();
+	}
+	
+	/**
+	 * @return The signed headers, separated by semicolons, as they appear in the Authorization header.
+	 */
+	public String getSignedHeaders() {
+		if (presigned) {
+			return host;
+		}
+		
+		if (decodedContentLength != null) {
+			return hostContentSha256AmzDateDecodedContentLength;
+		}
+		
+		return signContentSha256 ? hostContentSha256AmzDate : hostAmzDate;
+	}
+	
+	/**
+	 * @return The payload hash that forms part of the canonical request. The body is only hashed
+	 * if no precomputed hash was supplied, and at most once per instance.
+	 */
+	public String getPayloadHash() {
+		if (payloadHash == null) {
+			payloadHash = createPayloadHash();
+		}
+		
+		return payloadHash;
+	}
+	
+	/**
+	 * @param requestDate The request date, formatted as yyyyMMdd.
+	 * @param timestamp The request timestamp, formatted as the X-Amz-Date header (yyyyMMdd'T'HHmmss'Z').
+	 * @param credentialScope The credential scope for the request date, or null to create it from the request date.
+	 * @param hostName The host header line, prefixed with "host:".
+	 * @param endpoint The template holding the pre-encoded parts of the canonical request, or null to write all of them.
+	 * @param metrics The receiver of the timings of the signing stages, or null to record none.
+	 * @param presigned If true, only the host header is signed, since the other values are part of the query string.
+	 * @param region The region of the credential scope, or null for eu-west-1.
+	 * @param service The service of the credential scope, or null for execute-api.
+	 * @param decodedContentLength The x-amz-decoded-content-length of a streaming upload, which is signed
+	 * along with the x-amz-content-sha256 header, or null if it is not sent.
+	 */
+	private AuthenticationService(String accessSecret, String httpMethod, String requestPath,
+			String queryString, String requestDate, String timestamp, String credentialScope, Payload body,
+			String payloadHash, boolean signContentSha256, String hostName, SigningKeyCache signingKeyCache,
+			HmacSha256Key signingKey, EndpointTemplate endpoint, SigningMetrics metrics, boolean presigned,
+			String region, String service, String decodedContentLength) {
+		this.accessSecret = accessSecret;
+		this.httpMethod = httpMethod;
+		this.requestPath = requestPath;
+		
+		if (queryString != null) {
+			this.queryString = queryString;
+		}
+		
+		this.requestDate = requestDate;
+		this.timestamp = timestamp;
+		this.credentialScope = credentialScope;
+		this.body = body;
+		this.payloadHash = payloadHash;
+		this.signContentSha256 = signContentSha256;
+		this.hostName = hostName;
+		
+		if (signingKeyCache != null) {
+			this.signingKeyCache = signingKeyCache;
+		}
+		
+		this.signingKey = signingKey;
+		this.endpoint = endpoint;
+		
+		if (metrics != null) {
+			this.metrics = metrics;
+		}
+		
+		this.presigned = presigned;
+		
+		if (region != null) {
+			this.region = region;
+		}
+		if (service != null) {
+			this.service = service;
+		}
+		
+		this.decodedContentLength = decodedContentLength;
+	}
+	
+	/**
+	 * An implementation of the builder pattern. All fields are optional and map onto the constructor parameters.
+	 * 
+	 * @return An instance of AuthenticationServiceBuilder.
+	 */
+	static AuthenticationServiceBuilder builder() {
+		return new AuthenticationServiceBuilder();
+	}
+	
+	/**
+	 * @return The derived signing key for the credential scope of the request. A key supplied through the
+	 * builder is returned as is, otherwise it is looked up in, or derived and added to, the signing key cache.
+	 */
+	HmacSha256Key getSigningKey() throws InvalidKeyException {
+		if (signingKey == null) {
+			signingKey = createSigningKey();
+		}
+		
+		return signingKey;
+	}
+	
+	/**
+	 * @param requestDate The request date, formatted as yyyyMMdd.
+	 * @return The credential scope for the given request date, in the default region and service.
+	 */
+	static String createCredentialScope(String requestDate) {
+		return createCredentialScope(requestDate, DEFAULT_REGION, DEFAULT_SERVICE);
+	}
+	
+	/**
+	 * @param requestDate The request date, formatted as yyyyMMdd.
+	 * @param region The region of the credential scope.
+	 * @param service The service of the credential scope.
+	 * @return The credential scope for the given request date, region and service.
+	 */
+	static String createCredentialScope(String requestDate, String region, String service) {
+		return requestDate + "/" + region + "/" + service + "/" + REQUEST_TERMINATION_STRING;
+	}
+	
+	/**
+	 * @param value The region or service to check.
+	 * @return True if the value can be used as part of a credential scope.
+	 */
+	static boolean isValidScopeComponent(String value) {
+		return value != null && !value.isEmpty() && value.indexOf('/') < 0;
+	}
+	
+	private String createCredentialScope() {
+		if (credentialScope == null) {
+			credentialScope = createCredentialScope(requestDate, region, service);
+		}
+		
+		return credentialScope;
+	}
+	
+	private HmacSha256Key createSigningKey() throws InvalidKeyException {
+		return lookupSigningKey(signingKeyCache, accessSecret, requestDate, region, service, metrics);
+	}
+	
+	/**
+	 * Looks up the signing key of a credential scope in the cache, or derives it with deriveSigningKey
+	 * and adds it to the cache if it is not there.
+	 * 
+	 * @param signingKeyCache The cache to look the key up in.
+	 * @param accessSecret The access secret to derive the key from.
+	 * @param requestDate The request date, formatted as yyyyMMdd.
+	 * @param region The region of the credential scope.
+	 * @param service The service of the credential scope.
+	 * @param metrics The receiver of the cache hit or the time spent deriving the key.
+	 * @return The signing key.
+	 */
+	static HmacSha256Key lookupSigningKey(SigningKeyCache signingKeyCache, String accessSecret, String requestDate, String region,
+			String service, SigningMetrics metrics) throws InvalidKeyException {
+		HmacSha256Key signingKey = signingKeyCache.get(accessSecret, requestDate, region, service);
+		
+		if (signingKey != null) {
+			if (metrics.isEnabled()) {
+				metrics.recordKeyCacheHit();
+			}
+			
+			return signingKey;
+		}
+		
+		long start = metrics.isEnabled() ? System.nanoTime() : 0;
+		
+		signingKey = deriveSigningKey(accessSecret, requestDate, region, service);
+		signingKeyCache.put(accessSecret, requestDate, region, service, signingKey);
+		
+		if (metrics.isEnabled()) {
+			metrics.recordKeyDerivation(System.nanoTime() - start);
+		}
+		
+		return signingKey;
+	}
+	
+	/**
+	 * Derives the signing key of a credential scope, without looking it up in or adding it to a cache.
+	 * 
+	 * @param accessSecret The access secret to derive the key from.
+	 * @param requestDate The request date, formatted as yyyyMMdd.
+	 * @param region The region of the credential scope.
+	 * @param service The service of the credential scope.
+	 * @return The derived signing key.
+	 */
+	static HmacSha256Key deriveSigningKey(String accessSecret, String requestDate, String region, String service) throws InvalidKeyException {
+		byte[] secret = (SECRET_PREFIX + accessSecret).getBytes(StandardCharsets.UTF_8);
+		
+		return HmacSha256Key.of(CryptoContext.get().deriveSigningKey(secret, requestDate, region, service, REQUEST_TERMINATION_STRING));
+	}
+	
+	/**
+	 * Creates the signature like generateSignatureBytes, while recording the time spent in every stage.
+	 */
+	private byte[] createTimedSignature(CryptoContext context) throws InvalidKeyException {
+		long start = System.nanoTime();
+		
+		if (payloadHash == null && body != null) {
+			long payloadSize = body.estimateSize();
+			
+			getPayloadHash();
+			
+			long hashed = System.nanoTime();
+			
+			metrics.recordPayloadHashing(hashed - start, payloadSize);
+			start = hashed;
+		}
+		
+		byte[] canonicalRequestHash = createCanonicalRequestHash(context);
+		long canonicalized = System.nanoTime();
+		
+		metrics.recordCanonicalization(canonicalized - start);
+		
+		HmacSha256Key key = getSigningKey();
+		long signingStart = System.nanoTime();
+		byte[] result = createSignature(context, key, canonicalRequestHash);
+		
+		metrics.recordSignature(System.nanoTime() - signingStart);
+		
+		return result;
+	}
+	
+	/**
+	 * Streams the canonical request into the digest of the context and returns its hash. The payload
+	 * is hashed first, since it makes use of the same digest.
+	 */
+	private byte[] createCanonicalRequestHash(CryptoContext context) {
+		String payloadHash = getPayloadHash();
+		byte[] result = context.hashBuffer();
+		
+		if (endpoint != null) {
+			endpoint.createCanonicalRequestHash(context, queryString, timestamp, payloadHash, result);
+			
+			return result;
+		}
+		
+		CanonicalRequestWriter writer = context.writer().begin(context.digest());
+		
+		writer.append(httpMethod).newLine()
+			.append(requestPath).newLine()
+			.append(queryString).newLine()
+			.append(hostName).newLine();
+		
+		if (!presigned) {
+			if (signContentSha256) {
+				writer.append(contentSha256).append(payloadHash).newLine();
+			}
+			
+			writer.append(amzDate).append(timestamp).newLine();
+			
+			if (decodedContentLength != null) {
+				writer.append(decodedContentLengthHeader).append(decodedContentLength).newLine();
+			}
+		}
+		
+		writer.newLine() // This is needed to satisfy the requirement of having a blank line
+			.append(getSignedHeaders()).newLine()
+			.append(payloadHash)
+			.finish(result);
+		
+		return result;
+	}
+	
+	private String createPayloadHash() {
+		if (body == null) {
+			return EMPTY_PAYLOAD_HASH;
+		}
+		
+		return body.hashHex(CryptoContext.get());
+	}
+	
+	/**
+	 * Streams the string to sign into a clone of the precomputed inner digest of the signing key, or into
+	 * the Mac of the context if the key could not be precomputed, and returns the signature.
+	 */
+	private byte[] createSignature(CryptoContext context, HmacSha256Key key, byte[] canonicalRequestHash) throws InvalidKeyException {
+		byte[] result = context.signatureBuffer();
+		CanonicalRequestWriter writer = context.writer();
+		
+		if (key.isPrecomputed()) {
+			writer.begin(key.beginSignature());
+		} else {
+			writer.begin(context.mac(key.getKey()));
+		}
+		
+		writer.append(algorithmSuit).newLine()
+			.append(timestamp).newLine()
+			.append(createCredentialScope()).newLine()
+			.appendHex(canonicalRequestHash, 0, canonicalRequestHash.length)
+			.finish(result);
+		
+		if (key.isPrecomputed()) {
+			key.completeSignature(result);
+		}
+		
+		return result;
+	}
+	
+	static class AuthenticationServiceBuilder {
+		private String accessSecret;
+		private String httpMethod;
+		private String requestPath;
+		private String queryString;
+		private String requestDate;
+		private String timestamp;
+		private String credentialScope;
+		private Payload body;
+		private String payloadHash;
+		private boolean signContentSha256;
+		private String hostName;
+		private SigningKeyCache signingKeyCache;
+		private HmacSha256Key signingKey;
+		private EndpointTemplate endpoint;
+		private SigningMetrics metrics;
+		private boolean presigned;
+		private String region;
+		private String service;
+		private String decodedContentLength;
+		
+		private AuthenticationServiceBuilder() {}
+		
+		AuthenticationServiceBuilder accessSecret(String accessSecret) {
+			this.accessSecret = accessSecret;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder httpMethod(String httpMethod) {
+			this.httpMethod = httpMethod;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder requestPath(String requestPath) {
+			this.requestPath = requestPath;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder queryString(String queryString) {
+			this.queryString = queryString;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder requestDate(String requestDate) {
+			this.requestDate = requestDate;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder timestamp(String timestamp) {
+			this.timestamp = timestamp;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder credentialScope(String credentialScope) {
+			this.credentialScope = credentialScope;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder body(Payload body) {
+			this.body = body;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder payloadHash(String payloadHash) {
+			this.payloadHash = payloadHash;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder signContentSha256(boolean signContentSha256) {
+			this.signContentSha256 = signContentSha256;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder hostName(String hostName) {
+			this.hostName = hostName;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder signingKeyCache(SigningKeyCache signingKeyCache) {
+			this.signingKeyCache = signingKeyCache;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder signingKey(HmacSha256Key signingKey) {
+			this.signingKey = signingKey;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder endpoint(EndpointTemplate endpoint) {
+			this.endpoint = endpoint;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder metrics(SigningMetrics metrics) {
+			this.metrics = metrics;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder presigned(boolean presigned) {
+			this.presigned = presigned;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder region(String region) {
+			this.region = region;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder service(String service) {
+			this.service = service;
+			
+			return this;
+		}
+		
+		AuthenticationServiceBuilder decodedContentLength(String decodedContentLength) {
+			this.decodedContentLength = decodedContentLength;
+			
+			return this;
+		}
+		
+		AuthenticationService build() {
+			return new AuthenticationService(accessSecret, httpMethod, requestPath, queryString, requestDate, timestamp,
+					credentialScope, body, payloadHash, signContentSha256, hostName, signingKeyCache, signingKey, endpoint,
+					metrics, presigned, region, service, decodedContentLength);
+		}
+	}
+}
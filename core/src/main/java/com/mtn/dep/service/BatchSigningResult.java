@@ -0,0 +1,60 @@
+package com.mtn.dep.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * The outcome of signing a batch of requests with the DEPBatchSigner: the generated headers, in the
+ * same order as the requests, together with the time it took to sign the batch.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class BatchSigningResult {
+
+	private final List<AuthenticationHeaders> headers;
+	private final int keyDerivations;
+	private final long elapsedNanos;
+
+	BatchSigningResult(List<AuthenticationHeaders> headers, int keyDerivations, long elapsedNanos) {
+		this.headers = headers;
+		this.keyDerivations = keyDerivations;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return The generated headers, in the same order as the requests of the batch.
+	 */
+	public List<AuthenticationHeaders> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return The number of distinct credential scopes in the batch, each of which needed one signing key.
+	 */
+	public int getCredentialScopeCount() {
+		return keyDerivations;
+	}
+
+	/**
+	 * @param unit The unit of the returned duration.
+	 * @return The time it took to sign the batch.
+	 */
+	public long getElapsedTime(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return The number of requests signed per second.
+	 */
+	public double getThroughput() {
+		if (elapsedNanos == 0) {
+			return 0;
+		}
+
+		return headers.size() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+}
@@ -0,0 +1,186 @@
+package com.mtn.dep.service;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+
+/**
+ *
+ * Writes the canonical request and the string to sign as UTF-8 bytes straight into a MessageDigest
+ * or Mac, without building intermediate Strings. Pure ASCII text, which is what a canonical request
+ * almost always consists of, is copied byte for byte; any other character falls back to UTF-8 encoding.
+ * Bytes are collected in a small reusable buffer that is flushed to the target whenever it fills up.
+ *
+ * <i>Note:</i> A writer is bound to the CryptoContext of the current thread and must not be shared.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+final class CanonicalRequestWriter {
+
+	private static final int BUFFER_SIZE = 512;
+
+	private static final byte[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+
+	private int position;
+
+	private MessageDigest digest;
+
+	private Mac mac;
+
+	/**
+	 * Starts writing into the given digest. Anything written but not flushed before is discarded.
+	 */
+	CanonicalRequestWriter begin(MessageDigest digest) {
+		this.digest = digest;
+		this.mac = null;
+		this.position = 0;
+
+		return this;
+	}
+
+	/**
+	 * Starts writing into the given, initialised, Mac. Anything written but not flushed before is discarded.
+	 */
+	CanonicalRequestWriter begin(Mac mac) {
+		this.digest = null;
+		this.mac = mac;
+		this.position = 0;
+
+		return this;
+	}
+
+	CanonicalRequestWriter append(String text) {
+		int length = text.length();
+
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+
+			if (c >= 0x80) {
+				appendUtf8(text, i);
+
+				return this;
+			}
+
+			write((byte) c);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Appends bytes that were encoded up front, such as the fixed parts of an endpoint template.
+	 */
+	CanonicalRequestWriter append(byte[] bytes) {
+		if (bytes.length > buffer.length - position) {
+			flush();
+
+			if (bytes.length > buffer.length) {
+				update(bytes, bytes.length);
+
+				return this;
+			}
+		}
+
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+
+		return this;
+	}
+
+	CanonicalRequestWriter newLine() {
+		write((byte) '\n');
+
+		return this;
+	}
+
+	/**
+	 * Appends the given bytes as lowercase hex.
+	 */
+	CanonicalRequestWriter appendHex(byte[] bytes, int offset, int length) {
+		for (int i = offset; i < offset + length; i++) {
+			write(HEX_DIGITS[(bytes[i] >> 4) & 0x0f]);
+			write(HEX_DIGITS[bytes[i] & 0x0f]);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Completes the digest or Mac computation and stores the result in the given array.
+	 *
+	 * @return The number of bytes written to the array.
+	 */
+	int finish(byte[] output) {
+		flush();
+
+		try {
+			if (digest != null) {
+				return digest.digest(output, 0, output.length);
+			}
+
+			mac.doFinal(output, 0);
+
+			return mac.getMacLength();
+		} catch (DigestException | ShortBufferException e) {
+			throw new IllegalArgumentException("The output array is too small to hold the result.", e);
+		} finally {
+			digest = null;
+			mac = null;
+		}
+	}
+
+	private void appendUtf8(String text, int start) {
+		int length = text.length();
+
+		for (int i = start; i < length; i++) {
+			int c = text.charAt(i);
+
+			if (c < 0x80) {
+				write((byte) c);
+			} else if (c < 0x800) {
+				write((byte) (0xc0 | (c >> 6)));
+				write((byte) (0x80 | (c & 0x3f)));
+			} else if (Character.isHighSurrogate((char) c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint((char) c, text.charAt(++i));
+
+				write((byte) (0xf0 | (codePoint >> 18)));
+				write((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+				write((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+				write((byte) (0x80 | (codePoint & 0x3f)));
+			} else if (Character.isSurrogate((char) c)) {
+				write((byte) '?'); // Unpaired surrogates are replaced, as String.getBytes does
+			} else {
+				write((byte) (0xe0 | (c >> 12)));
+				write((byte) (0x80 | ((c >> 6) & 0x3f)));
+				write((byte) (0x80 | (c & 0x3f)));
+			}
+		}
+	}
+
+	private void write(byte b) {
+		if (position == buffer.length) {
+			flush();
+		}
+
+		buffer[position++] = b;
+	}
+
+	private void flush() {
+		update(buffer, position);
+
+		position = 0;
+	}
+
+	private void update(byte[] bytes, int length) {
+		if (digest != null) {
+			digest.update(bytes, 0, length);
+		} else {
+			mac.update(bytes, 0, length);
+		}
+	}
+}
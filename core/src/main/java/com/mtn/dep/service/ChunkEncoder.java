@@ -0,0 +1,213 @@
+package com.mtn.dep.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+
+import com.mtn.dep.exception.DEPSigningException;
+
+/**
+ *
+ * Encodes a payload in the aws-chunked format while it is written. The data is collected in a buffer
+ * of one chunk, which is signed and written out as soon as it is full. Every chunk signature covers
+ * the hash of the chunk and the signature of the chunk before it, starting at the seed signature of
+ * the request, so memory use depends on the chunk size only and not on the size of the payload.
+ *
+ * <i>Note:</i> An encoder holds the state of a single payload and must not be shared.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+final class ChunkEncoder {
+
+	static final String STREAMING_PAYLOAD = "STREAMING-AWS4-HMAC-SHA256-PAYLOAD";
+
+	private static final String CHUNK_ALGORITHM = "AWS4-HMAC-SHA256-PAYLOAD";
+	private static final String SIGNATURE_EXTENSION = ";chunk-signature=";
+	private static final int SIGNATURE_LENGTH = 64;
+
+	// Room in front of the data for the chunk size of at most 8 hex digits, the signature and the CRLF
+	private static final int HEADER_RESERVE = 8 + SIGNATURE_EXTENSION.length() + SIGNATURE_LENGTH + 2;
+
+	/**
+	 * Receives the encoded chunks.
+	 */
+	interface Sink {
+		void write(byte[] bytes, int offset, int length) throws IOException;
+	}
+
+	private final HmacSha256Key signingKey;
+	private final String stringToSignPrefix;
+	private final long expectedLength;
+	private final int chunkSize;
+	private final byte[] chunk;
+	private final SigningMetrics metrics;
+
+	private String previousSignature;
+	private int position;
+	private long length;
+	private boolean finished;
+
+	/**
+	 * @param signingKey The signing key of the request.
+	 * @param amzDate The X-Amz-Date of the request.
+	 * @param credentialScope The credential scope of the request.
+	 * @param seedSignature The signature of the request, which the first chunk signature is chained to.
+	 * @param chunkSize The number of bytes of data in every chunk but the last.
+	 * @param expectedLength The number of bytes of data that will be written, or -1 if it is not known.
+	 * @param metrics The receiver of the timings of hashing and signing the chunks.
+	 */
+	ChunkEncoder(HmacSha256Key signingKey, String amzDate, String credentialScope, String seedSignature, int chunkSize, long expectedLength,
+			SigningMetrics metrics) {
+		this.signingKey = signingKey;
+		this.stringToSignPrefix = CHUNK_ALGORITHM + "\n" + amzDate + "\n" + credentialScope + "\n";
+		this.previousSignature = seedSignature;
+		this.chunkSize = chunkSize;
+		this.expectedLength = expectedLength;
+		this.chunk = new byte[HEADER_RESERVE + chunkSize + 2];
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @param decodedLength The number of bytes of data.
+	 * @param chunkSize The number of bytes of data in every chunk but the last.
+	 * @return The number of bytes the data takes up once it is encoded, including the final empty chunk.
+	 */
+	static long getEncodedLength(long decodedLength, int chunkSize) {
+		long remainder = decodedLength % chunkSize;
+		long length = (decodedLength / chunkSize) * getChunkLength(chunkSize) + getChunkLength(0);
+
+		return remainder > 0 ? length + getChunkLength(remainder) : length;
+	}
+
+	private static long getChunkLength(long dataLength) {
+		return Long.toHexString(dataLength).length() + SIGNATURE_EXTENSION.length() + SIGNATURE_LENGTH + 2 + dataLength + 2;
+	}
+
+	void write(byte[] bytes, int offset, int count, Sink sink) throws IOException {
+		checkLength(count);
+
+		while (count > 0) {
+			int n = Math.min(count, chunkSize - position);
+
+			System.arraycopy(bytes, offset, chunk, HEADER_RESERVE + position, n);
+
+			position += n;
+			offset += n;
+			count -= n;
+
+			if (position == chunkSize) {
+				writeChunk(sink);
+			}
+		}
+	}
+
+	void write(ByteBuffer source, Sink sink) throws IOException {
+		checkLength(source.remaining());
+
+		while (source.hasRemaining()) {
+			int n = Math.min(source.remaining(), chunkSize - position);
+
+			source.get(chunk, HEADER_RESERVE + position, n);
+
+			position += n;
+
+			if (position == chunkSize) {
+				writeChunk(sink);
+			}
+		}
+	}
+
+	/**
+	 * Writes the remaining data and the final empty chunk. Does nothing if the payload was finished before.
+	 *
+	 * @throws IOException Thrown if fewer bytes were written than the expected length, or by the sink.
+	 */
+	void finish(Sink sink) throws IOException {
+		if (finished) {
+			return;
+		}
+
+		if (expectedLength >= 0 && length != expectedLength) {
+			throw new IOException("Only " + length + " of the " + expectedLength + " bytes of the payload were written.");
+		}
+
+		finished = true;
+
+		if (position > 0) {
+			writeChunk(sink);
+		}
+
+		writeChunk(sink);
+	}
+
+	private void checkLength(long count) throws IOException {
+		if (finished) {
+			throw new IOException("The payload has already been finished.");
+		}
+
+		length += count;
+
+		if (expectedLength >= 0 && length > expectedLength) {
+			throw new IOException("More than the " + expectedLength + " bytes of the payload were written.");
+		}
+	}
+
+	/**
+	 * Signs the buffered data and writes it out as one chunk, with the chunk header in the space
+	 * reserved in front of it and the CRLF behind it, so that the sink is called once per chunk.
+	 */
+	private void writeChunk(Sink sink) throws IOException {
+		String signature = signChunk(position);
+		byte[] header = (Integer.toHexString(position) + SIGNATURE_EXTENSION + signature + "\r\n").getBytes(StandardCharsets.US_ASCII);
+		int start = HEADER_RESERVE - header.length;
+		int end = HEADER_RESERVE + position;
+
+		System.arraycopy(header, 0, chunk, start, header.length);
+
+		chunk[end] = '\r';
+		chunk[end + 1] = '\n';
+
+		sink.write(chunk, start, end + 2 - start);
+
+		previousSignature = signature;
+		position = 0;
+	}
+
+	private String signChunk(int dataLength) {
+		CryptoContext context = CryptoContext.get();
+		boolean timed = metrics.isEnabled();
+		long start = timed ? System.nanoTime() : 0;
+
+		MessageDigest digest = context.digest();
+
+		digest.update(chunk, HEADER_RESERVE, dataLength);
+
+		String chunkHash = CryptoContext.toHex(digest.digest());
+
+		if (timed) {
+			long hashed = System.nanoTime();
+
+			metrics.recordPayloadHashing(hashed - start, dataLength);
+
+			start = hashed;
+		}
+
+		String stringToSign = stringToSignPrefix + previousSignature + "\n" + AuthenticationService.EMPTY_PAYLOAD_HASH + "\n" + chunkHash;
+		String signature;
+
+		try {
+			signature = CryptoContext.toHex(signingKey.sign(stringToSign.getBytes(StandardCharsets.UTF_8)));
+		} catch (InvalidKeyException e) {
+			throw new DEPSigningException("The chunk could not be signed.", e);
+		}
+
+		if (timed) {
+			metrics.recordSignature(System.nanoTime() - start);
+		}
+
+		return signature;
+	}
+}
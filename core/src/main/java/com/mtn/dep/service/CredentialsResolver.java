@@ -0,0 +1,21 @@
+package com.mtn.dep.service;
+
+/**
+ *
+ * Looks up the credentials of a tenant, for the DEPKeyring. It is only called the first time a tenant
+ * signs a request, and again after the tenant was evicted or invalidated, so it may be backed by a slow
+ * store such as a database or a secrets vault. Threads that sign the first request of a tenant at the
+ * same time may each call it, in which case only one of the results is kept.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@FunctionalInterface
+public interface CredentialsResolver {
+
+	/**
+	 * @param tenantId The ID of the tenant the request is signed for.
+	 * @return The credentials of the tenant, or null if the tenant is not known.
+	 */
+	DEPCredentials resolveCredentials(String tenantId);
+}
@@ -0,0 +1,20 @@
+package com.mtn.dep.service;
+
+/**
+ *
+ * Supplies the credentials a DEPSigner signs with. It is called once for every request, so that a
+ * signer picks up rotated credentials for the next request without being rebuilt. Implementations must
+ * be fast and thread-safe, and should not block. DEPCredentials is a source of itself, for credentials
+ * that never change; RotatingCredentials swaps them atomically.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@FunctionalInterface
+public interface CredentialsSource {
+
+	/**
+	 * @return The credentials to sign the next request with.
+	 */
+	DEPCredentials getCredentials();
+}
@@ -0,0 +1,139 @@
+package com.mtn.dep.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ *
+ * Holds the Mac and MessageDigest instances used by the signing chain. The JCA provider lookup
+ * behind Mac.getInstance and MessageDigest.getInstance is synchronized and allocates heavily, so
+ * every thread keeps its own context and resets the instances between uses instead.
+ *
+ * <i>Note:</i> A context is bound to the thread that obtained it and must not be shared.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+final class CryptoContext {
+
+	static final String HMAC_ALGORITHM = "HmacSHA256";
+	static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private static final ThreadLocal<CryptoContext> CONTEXT = ThreadLocal.withInitial(CryptoContext::new);
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Mac mac;
+	private final MessageDigest digest;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private final byte[] hashBuffer = new byte[32];
+	private final byte[] signatureBuffer = new byte[32];
+	private final CanonicalRequestWriter writer = new CanonicalRequestWriter();
+
+	private CryptoContext() {
+		try {
+			this.mac = Mac.getInstance(HMAC_ALGORITHM);
+			this.digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support both algorithms
+			throw new IllegalStateException("The " + HMAC_ALGORITHM + " or " + DIGEST_ALGORITHM + " algorithm is not available.", e);
+		}
+	}
+
+	/**
+	 * @return The context bound to the current thread.
+	 */
+	static CryptoContext get() {
+		return CONTEXT.get();
+	}
+
+	/**
+	 * Derives an AWS4 signing key by running the HMAC chain over the given values, using
+	 * the UTF-8 encoded secret as the initial key.
+	 */
+	byte[] deriveSigningKey(byte[] secret, String... values) throws InvalidKeyException {
+		byte[] key = secret;
+
+		for (String value : values) {
+			key = hmac(key, value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		return key;
+	}
+
+	byte[] hmac(byte[] key, byte[] data) throws InvalidKeyException {
+		return mac(key).doFinal(data);
+	}
+
+	/**
+	 * @return The Mac bound to this context, initialised with the given key.
+	 */
+	Mac mac(byte[] key) throws InvalidKeyException {
+		mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+
+		return mac;
+	}
+
+	/**
+	 * @return The MessageDigest bound to this context, reset and ready for use.
+	 */
+	MessageDigest digest() {
+		digest.reset();
+
+		return digest;
+	}
+
+	/**
+	 * @return A scratch buffer bound to this context, used to read payloads in chunks.
+	 */
+	byte[] buffer() {
+		return buffer;
+	}
+
+	/**
+	 * @return A buffer bound to this context that holds the result of a SHA-256 digest.
+	 */
+	byte[] hashBuffer() {
+		return hashBuffer;
+	}
+
+	/**
+	 * @return A buffer bound to this context that holds the result of an HmacSHA256 computation.
+	 */
+	byte[] signatureBuffer() {
+		return signatureBuffer;
+	}
+
+	/**
+	 * @return The canonical request writer bound to this context.
+	 */
+	CanonicalRequestWriter writer() {
+		return writer;
+	}
+
+	byte[] sha256(byte[] data) {
+		return digest().digest(data);
+	}
+
+	String sha256Hex(byte[] data) {
+		return toHex(sha256(data));
+	}
+
+	static String toHex(byte[] bytes) {
+		char[] result = new char[bytes.length * 2];
+
+		for (int i = 0; i < bytes.length; i++) {
+			result[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+			result[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+		}
+
+		return new String(result);
+	}
+}
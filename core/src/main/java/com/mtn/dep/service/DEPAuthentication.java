@@ -1,10 +1,11 @@
 package com.mtn.dep.service;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 import java.util.TreeMap;
 
 import com.mtn.dep.Authentication;
@@ -25,7 +26,9 @@ public final class DEPAuthentication implements Authentication {
 	private String accessSecret;
 	private String requestPath;
 	private String hostName;
-	private String body;
+	private Payload body;
+	private String payloadHash;
+	private boolean signContentSha256;
 	
 	@Deprecated
 	private TreeMap<String, Object> queryString;
@@ -39,11 +42,13 @@ public final class DEPAuthentication implements Authentication {
 	
 	private QueryStringProcessor queryStringProcessor;
 	
+	private SigningMetrics metrics;
+	
+	private String region;
+	
+	private String service;
+	
 	private final String signingAlgorithm = "AWS4-HMAC-SHA256";
-	private final String signedHeaders = "host;x-amz-date";
-	private final String zoneId = "GMT";
-	private final String dateTimeFormat = "yyyyMMdd'T'HHmmss'Z'";
-	private final String dateOnlyFormat = "yyyyMMdd";
 	
 	/**
 	 * An implementation of the builder pattern. Ensure that you supply all
@@ -58,19 +63,22 @@ public final class DEPAuthentication implements Authentication {
 	@Override
 	public AuthenticationHeaders createAuthenticationHeaders() {
 		
-		LocalDate requestDate = getTimestampForZoneId(timestamp, zoneId).toLocalDate();
-		LocalDateTime requestTimeStamp = getTimestampForZoneId(timestamp, zoneId).toLocalDateTime();
+		TimestampSource.Timestamp requestTimeStamp = TimestampSource.system().at(timestamp.toInstant());
 		String queryString = getQueryString();
 		
-		AuthenticationService manager = buildAuthenticationManager(requestDate, requestTimeStamp, queryString, body);
+		AuthenticationService manager = buildAuthenticationManager(requestTimeStamp, queryString, body);
 		String authorizationString = getAuthorizationString(manager);
 		
-		return buildDEPAuthenticationHeaders(authorizationString);
+		return buildDEPAuthenticationHeaders(authorizationString, requestTimeStamp, manager);
 	}
 	
 	@Override
 	public String getJsonBody() {
-		return body;
+		if (body != null) {
+			return body.getText();
+		}
+		
+		return null;
 	}
 	
 	@Override
@@ -85,6 +93,18 @@ public final class DEPAuthentication implements Authentication {
 	
 	private DEPAuthentication() {}
 	
+	/**
+	 * @return An estimate of the number of bytes that will be hashed when the headers are created,
+	 * or -1 if it is not known up front.
+	 */
+	long estimateBodySize() {
+		if (payloadHash != null || body == null) {
+			return 0;
+		}
+		
+		return body.estimateSize();
+	}
+	
 	private String getQueryString() {
 		if (queryStringProcessor != null) {
 			return queryStringProcessor.getQueryString(true);
@@ -120,33 +140,62 @@ public final class DEPAuthentication implements Authentication {
 		if (hostName == null || hostName.isEmpty()) {
 			throw new DEPValidationException("No hostName provided. The hostName is a mandatory field and cannot be null.");
 		}
-		if ((httpMethod == HttpMethod.POST || httpMethod == HttpMethod.PUT || httpMethod == HttpMethod.PATCH) && (body == null && queryString == null)) {
+		if ((httpMethod == HttpMethod.POST || httpMethod == HttpMethod.PUT || httpMethod == HttpMethod.PATCH) && (body == null && payloadHash == null && queryString == null)) {
 			throw new DEPValidationException("A JSON body or query string should be provided for HttpMethod types: POST, PUT, PATCH.");
 		}
+		if (payloadHash != null && !payloadHash.equals(AuthenticationService.UNSIGNED_PAYLOAD) && !isSha256Hex(payloadHash)) {
+			throw new DEPValidationException("The payloadHash should be a hex encoded SHA-256 hash of 64 characters.");
+		}
+		if (region != null && !AuthenticationService.isValidScopeComponent(region)) {
+			throw new DEPValidationException("The region cannot be empty, and cannot contain a '/'.");
+		}
+		if (service != null && !AuthenticationService.isValidScopeComponent(service)) {
+			throw new DEPValidationException("The service cannot be empty, and cannot contain a '/'.");
+		}
 	}
 	
-	private DEPAuthenticationHeaders buildDEPAuthenticationHeaders(String authorizationString) {
+	private static boolean isSha256Hex(String hash) {
+		if (hash.length() != 64) {
+			return false;
+		}
+		
+		for (int i = 0; i < hash.length(); i++) {
+			if (Character.digit(hash.charAt(i), 16) < 0) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private DEPAuthenticationHeaders buildDEPAuthenticationHeaders(String authorizationString, TimestampSource.Timestamp requestTimeStamp,
+			AuthenticationService manager) {
 		return DEPAuthenticationHeaders
 				.builder()
 					.authorizationString(authorizationString)
-					.xAmzDate(getTimestampAsGMTString())
+					.xAmzDate(requestTimeStamp.getAmzDate())
+					.xAmzContentSha256(signContentSha256 ? manager.getPayloadHash() : null)
 				.build();
 	}
 
-	private AuthenticationService buildAuthenticationManager(LocalDate requestDate, LocalDateTime requestTimeStamp, String queryString,
-			String body) {
+	private AuthenticationService buildAuthenticationManager(TimestampSource.Timestamp requestTimeStamp, String queryString,
+			Payload body) {
 		return AuthenticationService
 		.builder()
 			.httpMethod(httpMethod.name())
 			.requestPath(requestPath)
 			.queryString(queryString)
 			.body(body)
+			.payloadHash(payloadHash)
+			.signContentSha256(signContentSha256)
 			.accessSecret(accessSecret)
-			.requestDate(requestDate)
-			.requestDateFormat(DateTimeFormatter.ofPattern(dateOnlyFormat))
-			.timestamp(requestTimeStamp)
-			.timestampFormat(DateTimeFormatter.ofPattern(dateTimeFormat))
+			.requestDate(requestTimeStamp.getRequestDate())
+			.timestamp(requestTimeStamp.getAmzDate())
+			.credentialScope(region == null && service == null ? requestTimeStamp.getCredentialScope() : null)
+			.region(region)
+			.service(service)
 			.hostName(hostName)
+			.metrics(metrics)
 		.build();
 	}
 
@@ -154,17 +203,10 @@ public final class DEPAuthentication implements Authentication {
 		return signingAlgorithm + 
 				" Credential=" + accessKey + 
 				"/" + manager.getCredentialScope() + ", " + 
-				"SignedHeaders=" + signedHeaders + ", " + 
+				"SignedHeaders=" + manager.getSignedHeaders() + ", " + 
 				"Signature=" +	manager.generateSignature();
 	}
 	
-	private String getTimestampAsGMTString() {
-		return timestamp.withZoneSameInstant(ZoneId.of(zoneId)).format(DateTimeFormatter.ofPattern(dateTimeFormat));
-	}
-	
-	private ZonedDateTime getTimestampForZoneId(ZonedDateTime timestamp, String zoneId) {
-		return timestamp.withZoneSameInstant(ZoneId.of(zoneId));
-	}
 	
 	
 	
@@ -228,11 +270,117 @@ public final class DEPAuthentication implements Authentication {
 		 * @return
 		 */
 		public DEPAuthenticationBuilder body(String body) {
+			instance.body = body != null ? Payload.of(body) : null;
+			
+			return this;
+		}
+		
+		/**
+		 * @param body (Optional) - A stream containing the UTF-8 encoded body. It is hashed while it is read
+		 * and is only buffered in memory if the JSON body is requested before the headers are created.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder body(InputStream body) {
+			instance.body = body != null ? Payload.of(body) : null;
+			
+			return this;
+		}
+		
+		/**
+		 * @param body (Optional) - A channel containing the UTF-8 encoded body. It is hashed while it is read
+		 * and is only buffered in memory if the JSON body is requested before the headers are created.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder body(ReadableByteChannel body) {
+			instance.body = body != null ? Payload.of(body) : null;
+			
+			return this;
+		}
+		
+		/**
+		 * @param body (Optional) - A file containing the UTF-8 encoded body. It is hashed through a memory-mapped
+		 * view of the file, so memory use does not depend on the size of the file.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder body(Path body) {
+			instance.body = body != null ? Payload.of(body) : null;
+			
+			return this;
+		}
+		
+		/**
+		 * @param body (Optional) - A buffer containing the UTF-8 encoded body, between its position and limit.
+		 * It is hashed in place, without being copied, and is left unchanged.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder body(ByteBuffer body) {
+			instance.body = body != null ? Payload.of(body) : null;
+			
+			return this;
+		}
+		
+		/**
+		 * @param body (Optional) - The body of the request as a Payload.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder body(Payload body) {
 			instance.body = body;
 			
 			return this;
 		}
 		
+		/**
+		 * @param payloadHash (Optional) - The hex encoded SHA-256 hash of the body, if it is already known, or
+		 * "UNSIGNED-PAYLOAD". The body will not be hashed again. A body can still be supplied for convenience.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder payloadHash(String payloadHash) {
+			// Only a hex hash is lowercased, since that is the form it takes in the canonical request
+			instance.payloadHash = payloadHash != null && isSha256Hex(payloadHash) ? payloadHash.toLowerCase(Locale.ROOT) : payloadHash;
+			
+			return this;
+		}
+		
+		/**
+		 * @param payloadHash (Optional) - The SHA-256 hash of the body, if it is already known.
+		 * The body will not be hashed again. A body can still be supplied for convenience.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder payloadHash(byte[] payloadHash) {
+			if (payloadHash != null && payloadHash.length != 32) {
+				throw new IllegalArgumentException("The payloadHash should be a SHA-256 hash of 32 bytes.");
+			}
+			
+			instance.payloadHash = payloadHash != null ? CryptoContext.toHex(payloadHash) : null;
+			
+			return this;
+		}
+		
+		/**
+		 * Signs the request with "UNSIGNED-PAYLOAD" in place of the payload hash. The body is not hashed.
+		 * Make sure that the endpoint being called accepts unsigned payloads. The x-amz-content-sha256 header
+		 * is always signed and returned for an unsigned payload, since the endpoint cannot tell that the
+		 * payload is unsigned without it.
+		 * 
+		 * @return
+		 */
+		public DEPAuthenticationBuilder unsignedPayload() {
+			instance.payloadHash = AuthenticationService.UNSIGNED_PAYLOAD;
+			
+			return this;
+		}
+		
+		/**
+		 * @param signContentSha256 (Optional) - If true, the payload hash is added to the signed headers as
+		 * the x-amz-content-sha256 header. The header value is returned as part of the AuthenticationHeaders.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder signContentSha256(boolean signContentSha256) {
+			instance.signContentSha256 = signContentSha256;
+			
+			return this;
+		}
+		
 		/**
 		 * @deprecated This parameter is deprecated since version 1.0.1. Make use of QueryStringProcessor instead.
 		 * @param queryString (Optional) - Any query string data that should form part of the call to the endpoint.
@@ -288,13 +436,47 @@ public final class DEPAuthentication implements Authentication {
 			return this;
 		}
 		
+		/**
+		 * @param metrics (Optional) - Receives the time spent in every stage of signing. Defaults to SigningMetrics.NOOP.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder metrics(SigningMetrics metrics) {
+			instance.metrics = metrics;
+			
+			return this;
+		}
+		
+		/**
+		 * @param region (Optional) - The region of the credential scope. Defaults to eu-west-1.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder region(String region) {
+			instance.region = region;
+			
+			return this;
+		}
+		
+		/**
+		 * @param service (Optional) - The service of the credential scope. Defaults to execute-api.
+		 * @return
+		 */
+		public DEPAuthenticationBuilder service(String service) {
+			instance.service = service;
+			
+			return this;
+		}
+		
 		/**
 		 * @return An instance of the DEPAuthentication class.
-		 * @throws DEPValidationException Thrown if one or more of the mandatory fields are not specified.
+		 * @throws DEPValidationException Thrown if one or more of the mandatory fields are not specified, or the region or service is invalid.
 		 */
 		public DEPAuthentication build() throws DEPValidationException {
 			instance.validateMandatoryFields();
 			
+			if (AuthenticationService.UNSIGNED_PAYLOAD.equals(instance.payloadHash)) {
+				instance.signContentSha256 = true;
+			}
+			
 			if (instance.queryStringProcessor == null && instance.queryString != null && !instance.queryString.isEmpty()) {
 				instance.createQueryString(instance.queryString, instance.shouldURLEncode);
 			}
@@ -0,0 +1,94 @@
+package com.mtn.dep.service;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ * 
+ * A DTO containing the Authorization and X-Amz-Date header values needed to make
+ * a REST request to the DEP platform endpoint(s).
+ * 
+ * @author Andrew Howes
+ * @since 1.8
+ * @version 1.0.0
+ */
+public final class DEPAuthenticationHeaders implements AuthenticationHeaders {
+	
+	private String authorizationString;
+	private String xAmzDate;
+	private String xAmzContentSha256;
+	
+	DEPAuthenticationHeaders(String authorizationString, String xAmzDate, String xAmzContentSha256) {
+		this.authorizationString = authorizationString;
+		this.xAmzDate = xAmzDate;
+		this.xAmzContentSha256 = xAmzContentSha256;
+	}
+	
+	/**
+	 * An implementation of the builder pattern. All fields are optional.
+	 * 
+	 * @return An instance of DEPAuthenticationHeadersBuilder.
+	 */
+	public static DEPAuthenticationHeadersBuilder builder() {
+		return new DEPAuthenticationHeadersBuilder();
+	}
+	
+	@Override
+	public String getAuthorizationString() {
+		return authorizationString;
+	}
+	
+	@Override
+	public String getXAmzDate() {
+		return xAmzDate;
+	}
+	
+	@Override
+	public String getXAmzContentSha256() {
+		return xAmzContentSha256;
+	}
+	
+	public static class DEPAuthenticationHeadersBuilder {
+		private String authorizationString;
+		private String xAmzDate;
+		private String xAmzContentSha256;
+		
+		DEPAuthenticationHeadersBuilder() {}
+		
+		/**
+		 * @param authorizationString (Optional) - The value of the Authorization header.
+		 * @return
+		 */
+		public DEPAuthenticationHeadersBuilder authorizationString(String authorizationString) {
+			this.authorizationString = authorizationString;
+			
+			return this;
+		}
+		
+		/**
+		 * @param xAmzDate (Optional) - The value of the X-Amz-Date header.
+		 * @return
+		 */
+		public DEPAuthenticationHeadersBuilder xAmzDate(String xAmzDate) {
+			this.xAmzDate = xAmzDate;
+			
+			return this;
+		}
+		
+		/**
+		 * @param xAmzContentSha256 (Optional) - The value of the x-amz-content-sha256 header, or null if it is not signed.
+		 * @return
+		 */
+		public DEPAuthenticationHeadersBuilder xAmzContentSha256(String xAmzContentSha256) {
+			this.xAmzContentSha256 = xAmzContentSha256;
+			
+			return this;
+		}
+		
+		/**
+		 * @return An instance of the DEPAuthenticationHeaders class.
+		 */
+		public DEPAuthenticationHeaders build() {
+			return new DEPAuthenticationHeaders(authorizationString, xAmzDate, xAmzContentSha256);
+		}
+	}
+}
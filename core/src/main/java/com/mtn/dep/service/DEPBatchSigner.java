@@ -0,0 +1,199 @@
+package com.mtn.dep.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * Signs large batches of requests up front. The requests are grouped by credential scope, so that the
+ * signing key is derived once per group, after which the hashing and signing work is split over the
+ * threads of a ForkJoinPool. The headers are returned in the same order as the requests.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class DEPBatchSigner {
+
+	/**
+	 * The number of requests below which a batch is no longer split over multiple threads.
+	 */
+	public static final int DEFAULT_SPLIT_THRESHOLD = 256;
+
+	private static final long SECONDS_PER_DAY = 86400;
+
+	private final ForkJoinPool pool;
+	private final int splitThreshold;
+
+	/**
+	 * Creates a batch signer that runs on the common ForkJoinPool.
+	 */
+	public DEPBatchSigner() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool The pool the hashing and signing work is spread over.
+	 */
+	public DEPBatchSigner(ForkJoinPool pool) {
+		this(pool, DEFAULT_SPLIT_THRESHOLD);
+	}
+
+	/**
+	 * @param pool The pool the hashing and signing work is spread over.
+	 * @param splitThreshold The number of requests below which a batch is no longer split.
+	 */
+	public DEPBatchSigner(ForkJoinPool pool, int splitThreshold) {
+		if (pool == null) {
+			throw new IllegalArgumentException("No pool provided. The pool is mandatory and cannot be null.");
+		}
+		if (splitThreshold < 1) {
+			throw new IllegalArgumentException("The split threshold must be at least 1.");
+		}
+
+		this.pool = pool;
+		this.splitThreshold = splitThreshold;
+	}
+
+	/**
+	 * @param requests The requests to sign.
+	 * @return The generated headers, in the same order as the requests, and the throughput of the batch.
+	 */
+	public BatchSigningResult signAll(Stream<SigningRequest> requests) {
+		return signAll(requests.collect(Collectors.toList()));
+	}
+
+	/**
+	 * @param requests The requests to sign.
+	 * @return The generated headers, in the same order as the requests, and the throughput of the batch.
+	 */
+	public BatchSigningResult signAll(List<SigningRequest> requests) {
+		long start = System.nanoTime();
+
+		SigningRequest[] batch = requests.toArray(new SigningRequest[0]);
+		TimestampSource.Timestamp[] timestamps = new TimestampSource.Timestamp[batch.length];
+		DEPSigner.SigningScope[] signingScopes = new DEPSigner.SigningScope[batch.length];
+		AuthenticationHeaders[] headers = new AuthenticationHeaders[batch.length];
+
+		int scopes = createSigningScopes(batch, timestamps, signingScopes);
+
+		pool.invoke(new SignTask(batch, timestamps, signingScopes, headers, 0, batch.length));
+
+		return new BatchSigningResult(Collections.unmodifiableList(Arrays.asList(headers)), scopes, System.nanoTime() - start);
+	}
+
+	/**
+	 * Groups the requests by signer and date and creates the signing scope, which holds the derived
+	 * signing key, once for every group. The credentials of every signer are taken once, so that the
+	 * whole batch is signed with the same set.
+	 *
+	 * @return The number of credential scopes in the batch.
+	 */
+	private static int createSigningScopes(SigningRequest[] batch, TimestampSource.Timestamp[] timestamps,
+			DEPSigner.SigningScope[] signingScopes) {
+		Map<CredentialScope, DEPSigner.SigningScope> scopes = new HashMap<>();
+		Map<DEPSigner, DEPCredentials> signers = new IdentityHashMap<>();
+
+		for (int i = 0; i < batch.length; i++) {
+			DEPSigner signer = batch[i].getSigner();
+			DEPCredentials signerCredentials = signers.computeIfAbsent(signer, DEPSigner::getCredentials);
+			TimestampSource.Timestamp timestamp = signer.getTimestampSource().at(batch[i].getTimestamp());
+			long day = Math.floorDiv(timestamp.getEpochSecond(), SECONDS_PER_DAY);
+
+			timestamps[i] = timestamp;
+
+			CredentialScope credentialScope = new CredentialScope(signer, day);
+			DEPSigner.SigningScope signingScope = scopes.get(credentialScope);
+
+			if (signingScope == null) {
+				signingScope = signer.getSigningScope(signerCredentials, timestamp);
+				scopes.put(credentialScope, signingScope);
+			} else {
+				signer.recordKeyCacheHit();
+			}
+
+			signingScopes[i] = signingScope;
+		}
+
+		return scopes.size();
+	}
+
+	private final class SignTask extends RecursiveAction {
+		private static final long serialVersionUID = 4015862364474187353L;
+
+		private final SigningRequest[] batch;
+		private final TimestampSource.Timestamp[] timestamps;
+		private final DEPSigner.SigningScope[] signingScopes;
+		private final AuthenticationHeaders[] headers;
+		private final int from;
+		private final int to;
+
+		private SignTask(SigningRequest[] batch, TimestampSource.Timestamp[] timestamps, DEPSigner.SigningScope[] signingScopes,
+				AuthenticationHeaders[] headers, int from, int to) {
+			this.batch = batch;
+			this.timestamps = timestamps;
+			this.signingScopes = signingScopes;
+			this.headers = headers;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= splitThreshold) {
+				for (int i = from; i < to; i++) {
+					SigningRequest request = batch[i];
+
+					headers[i] = request.getSigner().sign(request.getHttpMethod(), request.getRequestPath(), request.getQuery(),
+							request.getBody(), timestamps[i], signingScopes[i], null);
+				}
+
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+
+			invokeAll(new SignTask(batch, timestamps, signingScopes, headers, from, middle),
+					new SignTask(batch, timestamps, signingScopes, headers, middle, to));
+		}
+	}
+
+	/**
+	 * The signer and the day of a request. The region and service are fixed per signer, so together they
+	 * identify the credential scope.
+	 */
+	private static final class CredentialScope {
+		private final DEPSigner signer;
+		private final long day;
+
+		private CredentialScope(DEPSigner signer, long day) {
+			this.signer = signer;
+			this.day = day;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(signer) + Long.hashCode(day);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CredentialScope)) {
+				return false;
+			}
+
+			CredentialScope other = (CredentialScope) obj;
+
+			return day == other.day && signer == other.signer;
+		}
+	}
+}
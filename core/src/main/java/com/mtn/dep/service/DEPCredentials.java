@@ -0,0 +1,66 @@
+package com.mtn.dep.service;
+
+/**
+ *
+ * An access key together with its access secret, as issued for a DEP partner account. The credentials
+ * are a CredentialsSource that always returns itself.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class DEPCredentials implements CredentialsSource {
+
+	private final String accessKey;
+	private final String accessSecret;
+	private final String credentialPrefix;
+
+	private DEPCredentials(String accessKey, String accessSecret) {
+		this.accessKey = accessKey;
+		this.accessSecret = accessSecret;
+		this.credentialPrefix = "AWS4-HMAC-SHA256 Credential=" + accessKey + "/";
+	}
+
+	/**
+	 * @param accessKey The provided access key.
+	 * @param accessSecret The provided access secret.
+	 * @return The credentials.
+	 */
+	public static DEPCredentials of(String accessKey, String accessSecret) {
+		if (accessKey == null) {
+			throw new IllegalArgumentException("No accessKey provided. The accessKey is mandatory and cannot be null.");
+		}
+		if (accessSecret == null) {
+			throw new IllegalArgumentException("No accessSecret provided. The accessSecret is mandatory and cannot be null.");
+		}
+
+		return new DEPCredentials(accessKey, accessSecret);
+	}
+
+	public String getAccessKey() {
+		return accessKey;
+	}
+
+	public String getAccessSecret() {
+		return accessSecret;
+	}
+
+	@Override
+	public DEPCredentials getCredentials() {
+		return this;
+	}
+
+	/**
+	 * @return The start of the Authorization header, up to the credential scope.
+	 */
+	String getCredentialPrefix() {
+		return credentialPrefix;
+	}
+
+	/**
+	 * @return The access key only, so that the secret does not end up in logs.
+	 */
+	@Override
+	public String toString() {
+		return "DEPCredentials[" + accessKey + "]";
+	}
+}
@@ -0,0 +1,416 @@
+package com.mtn.dep.service;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mtn.dep.AuthenticationHeaders;
+import com.mtn.dep.exception.DEPSigningException;
+
+/**
+ *
+ * Signs requests on behalf of many tenants, each with its own access key and secret. The credentials of
+ * a tenant are resolved the first time it signs a request, after which a DEPSigner is kept for it in a
+ * concurrent map. The derived signing keys are spread over a number of striped signing key caches by
+ * tenant, so that the date rollover and the eviction of one cache never hold up the tenants of another.
+ * Once more tenants are held than the configured maximum, idle tenants are evicted along with their
+ * signing keys. The tenants are kept in a queue in the order they were added, and every tenant that signed
+ * a request since the eviction last passed it gets a second chance at the back of the queue, which comes
+ * close to evicting the least recently used tenant without a scan over all tenants.
+ *
+ * <i>Note:</i> A keyring is thread-safe and is meant to be shared by every thread that signs requests.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class DEPKeyring {
+
+	/**
+	 * The number of tenants held before idle tenants are evicted.
+	 */
+	public static final int DEFAULT_MAXIMUM_TENANTS = 1024;
+
+	/**
+	 * The number of signing key caches the tenants are spread over.
+	 */
+	public static final int DEFAULT_KEY_CACHE_STRIPES = 16;
+
+	private final CredentialsResolver credentialsResolver;
+	private final String hostName;
+	private final boolean signContentSha256;
+	private final String region;
+	private final String service;
+	private final TimestampSource timestampSource;
+	private final SigningMetrics metrics;
+	private final int maximumTenants;
+	private final KeyStripe[] keyStripes;
+
+	private final ConcurrentHashMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+
+	private final ConcurrentLinkedQueue<Tenant> evictionQueue = new ConcurrentLinkedQueue<>();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private DEPKeyring(DEPKeyringBuilder builder) {
+		this.credentialsResolver = builder.credentialsResolver;
+		this.hostName = builder.hostName;
+		this.signContentSha256 = builder.signContentSha256;
+		this.region = builder.region;
+		this.service = builder.service;
+		this.timestampSource = builder.clock != null ? TimestampSource.of(builder.clock) : TimestampSource.system();
+		this.metrics = builder.metrics;
+		this.maximumTenants = builder.maximumTenants;
+		this.keyStripes = new KeyStripe[builder.keyCacheStripes];
+
+		// Room for every tenant of the stripe, for the current and the previous date
+		int keysPerStripe = Math.max(16, 2 * maximumTenants / keyStripes.length + 1);
+
+		for (int i = 0; i < keyStripes.length; i++) {
+			keyStripes[i] = new KeyStripe(new SigningKeyCache(keysPerStripe));
+		}
+	}
+
+	/**
+	 * An implementation of the builder pattern. Ensure that you supply all
+	 * mandatory fields to avoid a DEPValidationException
+	 *
+	 * @return An instance of DEPKeyringBuilder.
+	 */
+	public static DEPKeyringBuilder builder() {
+		return new DEPKeyringBuilder();
+	}
+
+	/**
+	 * @param tenantId The ID of the tenant to sign for.
+	 * @return The signer holding the credentials of the tenant.
+	 * @throws DEPSigningException Thrown if the tenant is not known to the credentials resolver.
+	 */
+	public DEPSigner signer(String tenantId) {
+		if (tenantId == null) {
+			throw new IllegalArgumentException("No tenantId provided. The tenantId is mandatory and cannot be null.");
+		}
+
+		Tenant tenant = tenants.get(tenantId);
+
+		if (tenant == null) {
+			// Resolved outside of the map, since the resolver may be slow and the map must not be locked meanwhile
+			Tenant created = createTenant(tenantId);
+
+			if (created == null) {
+				throw new DEPSigningException("No credentials found for tenant " + tenantId + ".", null);
+			}
+
+			tenant = tenants.putIfAbsent(tenantId, created);
+
+			if (tenant == null) {
+				tenant = created;
+
+				keyStripe(tenantId).acquire(tenant.accessSecret);
+				evictionQueue.offer(tenant);
+
+				if (tenants.size() > maximumTenants) {
+					evictIdleTenants();
+				}
+			}
+		} else if (!tenant.referenced) {
+			// Only written when it changes, so that the threads signing for a busy tenant don't all write to it
+			tenant.referenced = true;
+		}
+
+		return tenant.signer;
+	}
+
+	/**
+	 * Creates the Authorization and X-Amz-Date headers for a single request of a tenant, made at the
+	 * current time of the clock of this keyring.
+	 *
+	 * @param tenantId The ID of the tenant to sign for.
+	 * @param httpMethod The http method of the request.
+	 * @param requestPath The request path of the endpoint being called.
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param body The body of the request, or null if there is none.
+	 * @return The generated headers.
+	 * @throws DEPSigningException Thrown if the tenant is not known to the credentials resolver.
+	 */
+	public AuthenticationHeaders sign(String tenantId, HttpMethod httpMethod, String requestPath, QueryStringProcessor query, Payload body) {
+		return signer(tenantId).sign(httpMethod, requestPath, query, body);
+	}
+
+	/**
+	 * Removes a tenant and its signing keys, for example after its credentials changed. The credentials
+	 * are resolved again the next time the tenant signs a request.
+	 *
+	 * @param tenantId The ID of the tenant to remove.
+	 */
+	public void invalidate(String tenantId) {
+		Tenant tenant = tenants.remove(tenantId);
+
+		if (tenant != null) {
+			evictionQueue.remove(tenant);
+			removeSigningKeys(tenant);
+		}
+	}
+
+	/**
+	 * @return The number of tenants currently held by the keyring.
+	 */
+	public int getTenantCount() {
+		return tenants.size();
+	}
+
+	/**
+	 * @return The number of tenants that were evicted because they were idle.
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	private Tenant createTenant(String tenantId) {
+		DEPCredentials credentials = credentialsResolver.resolveCredentials(tenantId);
+
+		if (credentials == null) {
+			return null;
+		}
+
+		try {
+			DEPSigner signer = DEPSigner
+				.builder()
+					.credentials(credentials)
+					.hostName(hostName)
+					.signContentSha256(signContentSha256)
+					.region(region)
+					.service(service)
+					.metrics(metrics)
+					.signingKeyCache(keyStripe(tenantId).cache)
+					.timestampSource(timestampSource)
+				.build();
+
+			return new Tenant(tenantId, signer);
+		} catch (DEPValidationException e) {
+			throw new DEPSigningException("The signer of tenant " + tenantId + " could not be created.", e);
+		}
+	}
+
+	/**
+	 * Evicts idle tenants, until no more than the maximum number of tenants is held. Tenants are taken
+	 * from the front of the queue, and a tenant that signed a request since it was last taken is put back
+	 * at the end instead. Only called when a new tenant is added, so signing for a known tenant never
+	 * pays for it.
+	 */
+	private void evictIdleTenants() {
+		// Every tenant gets one second chance, so two passes over the queue always free a place, unless
+		// other threads keep signing for all of them meanwhile
+		int attempts = 2 * tenants.size();
+
+		while (tenants.size() > maximumTenants && attempts-- > 0) {
+			Tenant tenant = evictionQueue.poll();
+
+			if (tenant == null) {
+				return;
+			}
+
+			if (tenants.get(tenant.tenantId) != tenant) {
+				continue; // Invalidated or replaced since it was queued
+			}
+
+			if (tenant.referenced) {
+				tenant.referenced = false;
+				evictionQueue.offer(tenant);
+			} else if (tenants.remove(tenant.tenantId, tenant)) {
+				removeSigningKeys(tenant);
+				evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Removes the signing keys of a tenant, unless another tenant of the same stripe shares the secret.
+	 */
+	private void removeSigningKeys(Tenant tenant) {
+		KeyStripe stripe = keyStripe(tenant.tenantId);
+
+		if (stripe.release(tenant.accessSecret)) {
+			stripe.cache.removeAll(tenant.accessSecret);
+		}
+	}
+
+	private KeyStripe keyStripe(String tenantId) {
+		int hash = tenantId.hashCode();
+
+		return keyStripes[Math.floorMod(hash ^ (hash >>> 16), keyStripes.length)];
+	}
+
+	/**
+	 * A signing key cache together with the number of tenants that use each access secret in it.
+	 */
+	private static final class KeyStripe {
+		private final SigningKeyCache cache;
+		private final ConcurrentHashMap<String, Integer> secretUsers = new ConcurrentHashMap<>();
+
+		private KeyStripe(SigningKeyCache cache) {
+			this.cache = cache;
+		}
+
+		private void acquire(String accessSecret) {
+			secretUsers.merge(accessSecret, 1, Integer::sum);
+		}
+
+		/**
+		 * @return True if no tenant of the stripe uses the secret anymore.
+		 */
+		private boolean release(String accessSecret) {
+			return secretUsers.computeIfPresent(accessSecret, (secret, users) -> users > 1 ? users - 1 : null) == null;
+		}
+	}
+
+	private static final class Tenant {
+		private final String tenantId;
+		private final DEPSigner signer;
+		private final String accessSecret;
+		private volatile boolean referenced;
+
+		private Tenant(String tenantId, DEPSigner signer) {
+			this.tenantId = tenantId;
+			this.signer = signer;
+			this.accessSecret = signer.getCredentials().getAccessSecret();
+		}
+	}
+
+
+
+	public static class DEPKeyringBuilder {
+		private CredentialsResolver credentialsResolver;
+		private String hostName;
+		private boolean signContentSha256;
+		private String region = AuthenticationService.DEFAULT_REGION;
+		private String service = AuthenticationService.DEFAULT_SERVICE;
+		private Clock clock;
+		private SigningMetrics metrics;
+		private int maximumTenants = DEFAULT_MAXIMUM_TENANTS;
+		private int keyCacheStripes = DEFAULT_KEY_CACHE_STRIPES;
+
+		private DEPKeyringBuilder() {}
+
+		/**
+		 * @param credentialsResolver (Mandatory) - Looks up the credentials of a tenant.
+		 * @return
+		 */
+		public DEPKeyringBuilder credentialsResolver(CredentialsResolver credentialsResolver) {
+			this.credentialsResolver = credentialsResolver;
+
+			return this;
+		}
+
+		/**
+		 * @param hostName (Mandatory) - The provided host name, shared by all tenants.
+		 * @return
+		 */
+		public DEPKeyringBuilder hostName(String hostName) {
+			this.hostName = hostName;
+
+			return this;
+		}
+
+		/**
+		 * @param signContentSha256 (Optional) - If true, the payload hash is added to the signed headers as
+		 * the x-amz-content-sha256 header.
+		 * @return
+		 */
+		public DEPKeyringBuilder signContentSha256(boolean signContentSha256) {
+			this.signContentSha256 = signContentSha256;
+
+			return this;
+		}
+
+		/**
+		 * @param region (Optional) - The region of the credential scope, shared by all tenants. Defaults to eu-west-1.
+		 * @return
+		 */
+		public DEPKeyringBuilder region(String region) {
+			this.region = region;
+
+			return this;
+		}
+
+		/**
+		 * @param service (Optional) - The service of the credential scope, shared by all tenants. Defaults to execute-api.
+		 * @return
+		 */
+		public DEPKeyringBuilder service(String service) {
+			this.service = service;
+
+			return this;
+		}
+
+		/**
+		 * @param clock (Optional) - The clock that supplies the time of requests. Defaults to the system clock.
+		 * @return
+		 */
+		public DEPKeyringBuilder clock(Clock clock) {
+			this.clock = clock;
+
+			return this;
+		}
+
+		/**
+		 * @param metrics (Optional) - Receives the time spent in every stage of signing, for all tenants.
+		 * Defaults to SigningMetrics.NOOP.
+		 * @return
+		 */
+		public DEPKeyringBuilder metrics(SigningMetrics metrics) {
+			this.metrics = metrics;
+
+			return this;
+		}
+
+		/**
+		 * @param maximumTenants (Optional) - The number of tenants held before idle tenants are evicted.
+		 * Defaults to 1024.
+		 * @return
+		 */
+		public DEPKeyringBuilder maximumTenants(int maximumTenants) {
+			this.maximumTenants = maximumTenants;
+
+			return this;
+		}
+
+		/**
+		 * @param keyCacheStripes (Optional) - The number of signing key caches the tenants are spread over.
+		 * Defaults to 16.
+		 * @return
+		 */
+		public DEPKeyringBuilder keyCacheStripes(int keyCacheStripes) {
+			this.keyCacheStripes = keyCacheStripes;
+
+			return this;
+		}
+
+		/**
+		 * @return An instance of the DEPKeyring class.
+		 * @throws DEPValidationException Thrown if one or more of the mandatory fields are not specified, or another field is invalid.
+		 */
+		public DEPKeyring build() throws DEPValidationException {
+			if (credentialsResolver == null) {
+				throw new DEPValidationException("No credentialsResolver provided. The credentialsResolver is a mandatory field and cannot be null.");
+			}
+			if (hostName == null || hostName.isEmpty()) {
+				throw new DEPValidationException("No hostName provided. The hostName is a mandatory field and cannot be null.");
+			}
+			if (!AuthenticationService.isValidScopeComponent(region)) {
+				throw new DEPValidationException("The region cannot be null or empty, and cannot contain a '/'.");
+			}
+			if (!AuthenticationService.isValidScopeComponent(service)) {
+				throw new DEPValidationException("The service cannot be null or empty, and cannot contain a '/'.");
+			}
+			if (maximumTenants < 1) {
+				throw new DEPValidationException("The maximum number of tenants must be at least 1.");
+			}
+			if (keyCacheStripes < 1) {
+				throw new DEPValidationException("The number of key cache stripes must be at least 1.");
+			}
+
+			return new DEPKeyring(this);
+		}
+	}
+}
@@ -0,0 +1,436 @@
+package com.mtn.dep.service;
+
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ *
+ * Verifies the Authorization header of incoming requests that were signed in the way DEPAuthentication
+ * and DEPSigner sign them. The canonical request is rebuilt from the parts of the incoming request and
+ * signed with the secret of the access key, after which the signatures are compared in constant time.
+ * Derived signing keys are cached per access key and date, and requests of which the X-Amz-Date lies
+ * outside of the allowed clock skew are rejected before any hashing is done. If the verifier is given a
+ * ReplayGuard, a valid signature is only accepted the first time it is seen. A signature that does not
+ * match is checked once more against the previous secret of the access key, if the SecretResolver still
+ * has one, so that requests signed during a rotation are not rejected. Requests of which the
+ * X-Amz-Content-Sha256 is UNSIGNED-PAYLOAD carry a body that is not covered by the signature, so they are
+ * rejected unless the verifier is built to allow them.
+ *
+ * <i>Note:</i> A verifier is immutable and can be shared by every thread that verifies requests.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class DEPSignatureVerifier {
+
+	/**
+	 * The maximum difference between the X-Amz-Date of a request and the clock of the verifier.
+	 */
+	public static final Duration DEFAULT_CLOCK_SKEW = Duration.ofMinutes(5);
+
+	private static final String CREDENTIAL_PREFIX = "AWS4-HMAC-SHA256 Credential=";
+	private static final String SIGNED_HEADERS_PREFIX = ", SignedHeaders=";
+	private static final String SIGNATURE_PREFIX = ", Signature=";
+
+	private static final String HOST_AMZ_DATE = "host;x-amz-date";
+	private static final String HOST_CONTENT_SHA256_AMZ_DATE = "host;x-amz-content-sha256;x-amz-date";
+
+	private static final long SECONDS_PER_DAY = 86400;
+
+	private static final int SIGNATURE_LENGTH = 32;
+
+	private final SecretResolver secretResolver;
+	private final String region;
+	private final String service;
+	private final String credentialScopeSuffix;
+	private final long clockSkewSeconds;
+	private final Clock clock;
+	private final SigningKeyCache signingKeyCache;
+	private final ReplayGuard replayGuard;
+	private final SigningMetrics metrics;
+	private final boolean allowUnsignedPayload;
+
+	private DEPSignatureVerifier(DEPSignatureVerifierBuilder builder) {
+		this.secretResolver = builder.secretResolver;
+		this.region = builder.region;
+		this.service = builder.service;
+		this.credentialScopeSuffix = AuthenticationService.createCredentialScope("", region, service);
+		this.clockSkewSeconds = builder.clockSkew.getSeconds();
+		this.clock = builder.clock;
+		this.signingKeyCache = new SigningKeyCache(builder.keyCacheSize);
+		this.replayGuard = builder.replayGuard;
+		this.metrics = builder.metrics != null ? builder.metrics : SigningMetrics.NOOP;
+		this.allowUnsignedPayload = builder.allowUnsignedPayload;
+	}
+
+	/**
+	 * An implementation of the builder pattern. Ensure that you supply all
+	 * mandatory fields to avoid a DEPValidationException
+	 *
+	 * @return An instance of DEPSignatureVerifierBuilder.
+	 */
+	public static DEPSignatureVerifierBuilder builder() {
+		return new DEPSignatureVerifierBuilder();
+	}
+
+	/**
+	 * @param request The incoming request.
+	 * @return VALID if the signature matches the request, otherwise the reason the request should be rejected.
+	 */
+	public VerificationResult verify(VerificationRequest request) {
+		String authorization = request.getAuthorization();
+		String amzDate = request.getXAmzDate();
+
+		if (authorization == null || amzDate == null || !authorization.startsWith(CREDENTIAL_PREFIX)) {
+			return VerificationResult.MALFORMED;
+		}
+
+		int accessKeyEnd = authorization.indexOf('/', CREDENTIAL_PREFIX.length());
+		int credentialEnd = authorization.indexOf(SIGNED_HEADERS_PREFIX, CREDENTIAL_PREFIX.length());
+		int signedHeadersEnd = credentialEnd < 0 ? -1 : authorization.indexOf(SIGNATURE_PREFIX, credentialEnd);
+
+		if (accessKeyEnd < 0 || credentialEnd < accessKeyEnd || signedHeadersEnd < 0) {
+			return VerificationResult.MALFORMED;
+		}
+
+		boolean signContentSha256;
+		int signedHeadersStart = credentialEnd + SIGNED_HEADERS_PREFIX.length();
+
+		if (matches(authorization, signedHeadersStart, signedHeadersEnd, HOST_AMZ_DATE)) {
+			signContentSha256 = false;
+		} else if (matches(authorization, signedHeadersStart, signedHeadersEnd, HOST_CONTENT_SHA256_AMZ_DATE)) {
+			signContentSha256 = true;
+		} else {
+			return VerificationResult.MALFORMED;
+		}
+
+		byte[] signature = parseSignature(authorization, signedHeadersEnd + SIGNATURE_PREFIX.length());
+		long epochSecond = parseAmzDate(amzDate);
+
+		if (signature == null || epochSecond == Long.MIN_VALUE || (signContentSha256 && request.getXAmzContentSha256() == null)) {
+			return VerificationResult.MALFORMED;
+		}
+
+		if (!allowUnsignedPayload && AuthenticationService.UNSIGNED_PAYLOAD.equals(request.getXAmzContentSha256())) {
+			return VerificationResult.UNSIGNED_PAYLOAD;
+		}
+
+		if (Math.abs(clock.instant().getEpochSecond() - epochSecond) > clockSkewSeconds) {
+			return VerificationResult.EXPIRED;
+		}
+
+		String requestDate = amzDate.substring(0, 8);
+
+		if (credentialEnd - accessKeyEnd - 1 != requestDate.length() + credentialScopeSuffix.length()
+				|| !authorization.startsWith(requestDate, accessKeyEnd + 1)
+				|| !authorization.startsWith(credentialScopeSuffix, accessKeyEnd + 1 + requestDate.length())) {
+			return VerificationResult.INVALID_SCOPE;
+		}
+
+		String accessKey = authorization.substring(CREDENTIAL_PREFIX.length(), accessKeyEnd);
+		String accessSecret = secretResolver.resolveSecret(accessKey);
+
+		if (accessSecret == null) {
+			return VerificationResult.UNKNOWN_ACCESS_KEY;
+		}
+
+		String contentSha256 = request.getXAmzContentSha256();
+		String payloadHash = AuthenticationService.UNSIGNED_PAYLOAD.equals(contentSha256) ? contentSha256 : hashPayload(request.getBody());
+
+		// Compared exactly, since the canonical request is built from the lowercase hash and a header in any
+		// other case could never produce a matching signature
+		if (signContentSha256 && !payloadHash.equals(contentSha256)) {
+			return VerificationResult.PAYLOAD_MISMATCH;
+		}
+
+		QueryStringProcessor query = request.getQuery();
+		String queryString = query != null ? query.getQueryString(true) : null;
+
+		// The payload hash and query string are shared, so a second attempt only derives a key and signs again
+		VerificationResult result = verifySignature(request, accessSecret, requestDate, queryString, payloadHash, signContentSha256, signature);
+
+		if (result == VerificationResult.SIGNATURE_MISMATCH) {
+			String previousSecret = secretResolver.resolvePreviousSecret(accessKey);
+
+			if (previousSecret != null) {
+				result = verifySignature(request, previousSecret, requestDate, queryString, payloadHash, signContentSha256, signature);
+			}
+		}
+
+		if (result == VerificationResult.VALID && replayGuard != null && !replayGuard.markIfNew(signature, epochSecond)) {
+			return VerificationResult.REPLAYED;
+		}
+
+		return result;
+	}
+
+	private VerificationResult verifySignature(VerificationRequest request, String accessSecret, String requestDate, String queryString,
+			String payloadHash, boolean signContentSha256, byte[] signature) {
+		AuthenticationService service = AuthenticationService
+			.builder()
+				.accessSecret(accessSecret)
+				.httpMethod(request.getHttpMethod().name())
+				.requestPath(request.getRequestPath())
+				.queryString(queryString)
+				.requestDate(requestDate)
+				.timestamp(request.getXAmzDate())
+				.payloadHash(payloadHash)
+				.signContentSha256(signContentSha256)
+				.hostName(request.getHostName())
+				.signingKeyCache(signingKeyCache)
+				.metrics(metrics)
+				.region(region)
+				.service(this.service)
+			.build();
+
+		if (MessageDigest.isEqual(service.generateSignatureBytes(), signature)) {
+			return VerificationResult.VALID;
+		}
+
+		return VerificationResult.SIGNATURE_MISMATCH;
+	}
+
+	/**
+	 * @return The hex encoded hash of the body, or of an empty body if there is none, timed like the
+	 * payload hashing stage of signing.
+	 */
+	private String hashPayload(Payload body) {
+		if (body == null) {
+			return AuthenticationService.EMPTY_PAYLOAD_HASH;
+		}
+
+		try {
+			if (!metrics.isEnabled()) {
+				return body.hashHex(CryptoContext.get());
+			}
+
+			long payloadSize = body.estimateSize();
+			long start = System.nanoTime();
+			String result = body.hashHex(CryptoContext.get());
+
+			metrics.recordPayloadHashing(System.nanoTime() - start, payloadSize);
+
+			return result;
+		} catch (RuntimeException e) {
+			metrics.recordFailure(e);
+
+			throw e;
+		}
+	}
+
+	private static boolean matches(String text, int start, int end, String expected) {
+		return end - start == expected.length() && text.startsWith(expected, start);
+	}
+
+	/**
+	 * @return The hex decoded signature that runs until the end of the header, or null if it is not a valid signature.
+	 */
+	private static byte[] parseSignature(String authorization, int start) {
+		if (authorization.length() - start != SIGNATURE_LENGTH * 2) {
+			return null;
+		}
+
+		byte[] result = new byte[SIGNATURE_LENGTH];
+
+		for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+			int high = Character.digit(authorization.charAt(start + i * 2), 16);
+			int low = Character.digit(authorization.charAt(start + i * 2 + 1), 16);
+
+			if (high < 0 || low < 0) {
+				return null;
+			}
+
+			result[i] = (byte) (high << 4 | low);
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return The seconds since the epoch of a yyyyMMdd'T'HHmmss'Z' timestamp, or Long.MIN_VALUE if it cannot be parsed.
+	 */
+	private static long parseAmzDate(String amzDate) {
+		if (amzDate.length() != 16 || amzDate.charAt(8) != 'T' || amzDate.charAt(15) != 'Z') {
+			return Long.MIN_VALUE;
+		}
+
+		int year = parseDigits(amzDate, 0, 4);
+		int month = parseDigits(amzDate, 4, 6);
+		int day = parseDigits(amzDate, 6, 8);
+		int hours = parseDigits(amzDate, 9, 11);
+		int minutes = parseDigits(amzDate, 11, 13);
+		int seconds = parseDigits(amzDate, 13, 15);
+
+		if (year < 0 || month < 0 || day < 0 || hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) {
+			return Long.MIN_VALUE;
+		}
+
+		try {
+			return LocalDate.of(year, month, day).toEpochDay() * SECONDS_PER_DAY + hours * 3600 + minutes * 60 + seconds;
+		} catch (DateTimeException e) {
+			return Long.MIN_VALUE;
+		}
+	}
+
+	private static int parseDigits(String text, int start, int end) {
+		int result = 0;
+
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+
+			result = result * 10 + (c - '0');
+		}
+
+		return result;
+	}
+
+
+
+	public static class DEPSignatureVerifierBuilder {
+		private SecretResolver secretResolver;
+		private String region = AuthenticationService.DEFAULT_REGION;
+		private String service = AuthenticationService.DEFAULT_SERVICE;
+		private Duration clockSkew = DEFAULT_CLOCK_SKEW;
+		private Clock clock = Clock.systemUTC();
+		private int keyCacheSize = SigningKeyCache.DEFAULT_MAXIMUM_SIZE;
+		private ReplayGuard replayGuard;
+		private SigningMetrics metrics;
+		private boolean allowUnsignedPayload;
+
+		private DEPSignatureVerifierBuilder() {}
+
+		/**
+		 * @param secretResolver (Mandatory) - Looks up the access secret of the access key of a request.
+		 * @return
+		 */
+		public DEPSignatureVerifierBuilder secretResolver(SecretResolver secretResolver) {
+			this.secretResolver = secretResolver;
+
+			return this;
+		}
+
+		/**
+		 * @param region (Optional) - The region of the credential scope requests must be signed for.
+		 * Defaults to eu-west-1.
+		 * @return
+		 */
+		public DEPSignatureVerifierBuilder region(String region) {
+			this.region = region;
+
+			return this;
+		}
+
+		/**
+		 * @param service (Optional) - The service of the credential scope requests must be signed for.
+		 * Defaults to execute-api.
+		 * @return
+		 */
+		public DEPSignatureVerifierBuilder service(String service) {
+			this.service = service;
+
+			return this;
+		}
+
+		/**
+		 * @param clockSkew (Optional) - The maximum difference between the X-Amz-Date of a request and the
+		 * clock of the verifier. Defaults to 5 minutes.
+		 * @return
+		 */
+		public DEPSignatureVerifierBuilder clockSkew(Duration clockSkew) {
+			this.clockSkew = clockSkew;
+
+			return this;
+		}
+
+		/**
+		 * @param clock (Optional) - The clock the X-Amz-Date of requests is compared with. Defaults to the system clock.
+		 * @return
+		 */
+		public DEPSignatureVerifierBuilder clock(Clock clock) {
+			this.clock = clock;
+
+			return this;
+		}
+
+		/**
+		 * @param keyCacheSize (Optional) - The maximum number of derived signing keys that are cached, one
+		 * for every access key and date. Defaults to 1024.
+		 * @return
+		 */
+		public DEPSignatureVerifierBuilder keyCacheSize(int keyCacheSize) {
+			this.keyCacheSize = keyCacheSize;
+
+			return this;
+		}
+
+		/**
+		 * @param replayGuard (Optional) - Rejects valid signatures that were seen before. Its clock skew must
+		 * cover the clock skew of the verifier.
+		 * @return
+		 */
+		public DEPSignatureVerifierBuilder replayGuard(ReplayGuard replayGuard) {
+			this.replayGuard = replayGuard;
+
+			return this;
+		}
+
+		/**
+		 * @param metrics (Optional) - Receives the time spent in every stage of recomputing the signatures
+		 * of incoming requests. Defaults to SigningMetrics.NOOP.
+		 * @return
+		 */
+		public DEPSignatureVerifierBuilder metrics(SigningMetrics metrics) {
+			this.metrics = metrics;
+
+			return this;
+		}
+
+		/**
+		 * @param allowUnsignedPayload (Optional) - If true, requests of which the X-Amz-Content-Sha256 is
+		 * UNSIGNED-PAYLOAD are accepted, even though their body is not authenticated. Defaults to false.
+		 * @return
+		 */
+		public DEPSignatureVerifierBuilder allowUnsignedPayload(boolean allowUnsignedPayload) {
+			this.allowUnsignedPayload = allowUnsignedPayload;
+
+			return this;
+		}
+
+		/**
+		 * @return An instance of the DEPSignatureVerifier class.
+		 * @throws DEPValidationException Thrown if one or more of the mandatory fields are not specified, or the region or service is invalid.
+		 */
+		public DEPSignatureVerifier build() throws DEPValidationException {
+			if (secretResolver == null) {
+				throw new DEPValidationException("No secretResolver provided. The secretResolver is a mandatory field and cannot be null.");
+			}
+			if (!AuthenticationService.isValidScopeComponent(region)) {
+				throw new DEPValidationException("The region cannot be null or empty, and cannot contain a '/'.");
+			}
+			if (!AuthenticationService.isValidScopeComponent(service)) {
+				throw new DEPValidationException("The service cannot be null or empty, and cannot contain a '/'.");
+			}
+			if (clockSkew == null || clockSkew.isNegative()) {
+				throw new IllegalArgumentException("The clock skew cannot be null or negative.");
+			}
+			if (clock == null) {
+				throw new IllegalArgumentException("No clock provided. The clock is mandatory and cannot be null.");
+			}
+			if (keyCacheSize < 1) {
+				throw new IllegalArgumentException("The key cache size must be at least 1.");
+			}
+			if (replayGuard != null && replayGuard.getClockSkew().compareTo(clockSkew) < 0) {
+				throw new IllegalArgumentException("The clock skew of the replay guard must cover the clock skew of the verifier.");
+			}
+
+			return new DEPSignatureVerifier(this);
+		}
+	}
+}
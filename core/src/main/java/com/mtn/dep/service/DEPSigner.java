@@ -0,0 +1,738 @@
+package com.mtn.dep.service;
+
+import java.security.InvalidKeyException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mtn.dep.AuthenticationHeaders;
+import com.mtn.dep.exception.DEPSigningException;
+
+/**
+ *
+ * An immutable, thread-safe signer for the DEP platform. Unlike DEPAuthentication, which is built
+ * and validated for every request, a DEPSigner is created once per set of credentials and host name
+ * and can be shared by every thread that makes REST calls to the DEP platform endpoint(s). The
+ * credentials are read from a CredentialsSource for every request, so a signer built with
+ * RotatingCredentials picks up rotated credentials without being rebuilt.
+ *
+ * <i>Note:</i> The per-request arguments are not validated beyond null checks. In particular, it is up
+ * to the caller to supply a body or query string for the POST, PUT and PATCH http methods.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class DEPSigner {
+
+	/**
+	 * The longest time a presigned URL can be valid for.
+	 */
+	public static final Duration MAXIMUM_PRESIGN_EXPIRATION = Duration.ofDays(7);
+
+	private static final String HOST_PREFIX = "host:";
+
+	private final CredentialsSource credentialsSource;
+	private final String hostName;
+	private final boolean signContentSha256;
+	private final String region;
+	private final String service;
+	private final boolean defaultScope;
+	private final int chunkSize;
+	private final SigningKeyCache signingKeyCache;
+	private final TimestampSource timestampSource;
+	private final SigningMetrics metrics;
+
+	private volatile SigningScope signingScope;
+
+	private DEPSigner(DEPSignerBuilder builder) {
+		this.credentialsSource = builder.credentialsSource;
+		this.hostName = builder.hostName;
+		this.signContentSha256 = builder.signContentSha256;
+		this.region = builder.region;
+		this.service = builder.service;
+		this.defaultScope = AuthenticationService.DEFAULT_REGION.equals(region) && AuthenticationService.DEFAULT_SERVICE.equals(service);
+		this.chunkSize = builder.chunkSize;
+		this.signingKeyCache = builder.signingKeyCache != null ? builder.signingKeyCache : SigningKeyCache.shared();
+
+		if (builder.timestampSource != null) {
+			this.timestampSource = builder.timestampSource;
+		} else {
+			this.timestampSource = builder.clock != null ? TimestampSource.of(builder.clock) : TimestampSource.system();
+		}
+
+		this.metrics = builder.metrics != null ? builder.metrics : SigningMetrics.NOOP;
+
+		if (credentialsSource instanceof RotatingCredentials) {
+			((RotatingCredentials) credentialsSource).addSigner(signingKeyCache, region, service);
+		}
+	}
+
+	/**
+	 * An implementation of the builder pattern. Ensure that you supply all
+	 * mandatory fields to avoid a DEPValidationException
+	 *
+	 * @return An instance of DEPSignerBuilder.
+	 */
+	public static DEPSignerBuilder builder() {
+		return new DEPSignerBuilder();
+	}
+
+	/**
+	 * Creates the Authorization and X-Amz-Date headers for a single request, made at the current time of
+	 * the clock of this signer.
+	 *
+	 * @param httpMethod The http method of the request.
+	 * @param requestPath The request path of the endpoint being called.
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param body The JSON body of the request, or null if there is none.
+	 * @return The generated headers.
+	 */
+	public AuthenticationHeaders sign(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, String body) {
+		return sign(httpMethod, requestPath, query, body != null ? Payload.of(body) : null);
+	}
+
+	/**
+	 * Creates the Authorization and X-Amz-Date headers for a single request, made at the current time of
+	 * the clock of this signer.
+	 *
+	 * @param httpMethod The http method of the request.
+	 * @param requestPath The request path of the endpoint being called.
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param body The body of the request, or null if there is none.
+	 * @return The generated headers.
+	 * @throws DEPSigningException Thrown if the signing key could not be derived.
+	 */
+	public AuthenticationHeaders sign(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, Payload body) {
+		return sign(httpMethod, requestPath, query, body, timestampSource.now(), null, null);
+	}
+
+	/**
+	 * Creates the Authorization and X-Amz-Date headers for a single request.
+	 *
+	 * @param httpMethod The http method of the request.
+	 * @param requestPath The request path of the endpoint being called.
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param body The JSON body of the request, or null if there is none.
+	 * @param timestamp The time at which the request is made.
+	 * @return The generated headers.
+	 */
+	public AuthenticationHeaders sign(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, String body, Instant timestamp) {
+		return sign(httpMethod, requestPath, query, body != null ? Payload.of(body) : null, timestamp);
+	}
+
+	/**
+	 * Creates the Authorization and X-Amz-Date headers for a single request.
+	 *
+	 * @param httpMethod The http method of the request.
+	 * @param requestPath The request path of the endpoint being called.
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param body The body of the request, or null if there is none.
+	 * @param timestamp The time at which the request is made.
+	 * @return The generated headers.
+	 */
+	public AuthenticationHeaders sign(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, Payload body, Instant timestamp) {
+		requireNonNull(timestamp, "timestamp");
+
+		return sign(httpMethod, requestPath, query, body, timestampSource.at(timestamp), null, null);
+	}
+
+	/**
+	 * Creates a signing template for a single endpoint, which encodes the fixed parts of the canonical
+	 * request once. Keep the template and reuse it for every call to the endpoint.
+	 *
+	 * @param httpMethod The http method of the endpoint.
+	 * @param requestPath The request path of the endpoint.
+	 * @return The signing template for the endpoint.
+	 */
+	public EndpointTemplate endpoint(HttpMethod httpMethod, String requestPath) {
+		requireNonNull(httpMethod, "httpMethod");
+		requireNonNull(requestPath, "requestPath");
+
+		return new EndpointTemplate(this, httpMethod, requestPath, hostName, signContentSha256);
+	}
+
+	/**
+	 * Creates a URL that carries its signature in the query string, for clients that cannot set the
+	 * Authorization header. The URL is signed at the current time of the clock of this signer.
+	 *
+	 * @param httpMethod The http method the URL is called with.
+	 * @param requestPath The request path of the endpoint being called.
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param expiresIn The time for which the URL is valid, between 1 second and 7 days.
+	 * @return The presigned URL.
+	 */
+	public PresignedUrl presign(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, Duration expiresIn) {
+		TimestampSource.Timestamp timestamp = timestampSource.now();
+
+		return presign(httpMethod, requestPath, query, new PresignScope(getSigningScope(getCredentials(), timestamp), timestamp, expiresIn));
+	}
+
+	/**
+	 * Creates a URL that carries its signature in the query string, for clients that cannot set the
+	 * Authorization header.
+	 *
+	 * @param httpMethod The http method the URL is called with.
+	 * @param requestPath The request path of the endpoint being called.
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param expiresIn The time for which the URL is valid, between 1 second and 7 days.
+	 * @param timestamp The time from which the URL is valid.
+	 * @return The presigned URL.
+	 */
+	public PresignedUrl presign(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, Duration expiresIn, Instant timestamp) {
+		requireNonNull(timestamp, "timestamp");
+
+		TimestampSource.Timestamp requestTimestamp = timestampSource.at(timestamp);
+
+		return presign(httpMethod, requestPath, query, new PresignScope(getSigningScope(getCredentials(), requestTimestamp), requestTimestamp, expiresIn));
+	}
+
+	/**
+	 * Presigns a list of URLs at the current time of the clock of this signer. See
+	 * {@link #presignAll(List, Duration, Instant)}.
+	 *
+	 * @param requests The URLs to presign.
+	 * @param expiresIn The time for which the URLs are valid, between 1 second and 7 days.
+	 * @return The presigned URLs, in the same order as the requests.
+	 */
+	public List<PresignedUrl> presignAll(List<PresignRequest> requests, Duration expiresIn) {
+		requireNonNull(requests, "requests");
+
+		return presignAll(requests, expiresIn, timestampSource.now());
+	}
+
+	/**
+	 * Presigns a list of URLs that share the same timestamp and expiry. The signing key and the signing
+	 * parameters of the query string are created once for the whole list, which leaves only the canonical
+	 * request and the final HMAC to be computed per URL.
+	 *
+	 * @param requests The URLs to presign.
+	 * @param expiresIn The time for which the URLs are valid, between 1 second and 7 days.
+	 * @param timestamp The time from which the URLs are valid.
+	 * @return The presigned URLs, in the same order as the requests.
+	 * @throws DEPSigningException Thrown if the signing key could not be derived.
+	 */
+	public List<PresignedUrl> presignAll(List<PresignRequest> requests, Duration expiresIn, Instant timestamp) {
+		requireNonNull(requests, "requests");
+		requireNonNull(timestamp, "timestamp");
+
+		return presignAll(requests, expiresIn, timestampSource.at(timestamp));
+	}
+
+	private List<PresignedUrl> presignAll(List<PresignRequest> requests, Duration expiresIn, TimestampSource.Timestamp requestTimestamp) {
+		PresignScope scope = new PresignScope(getSigningScope(getCredentials(), requestTimestamp), requestTimestamp, expiresIn);
+		List<PresignedUrl> result = new ArrayList<>(requests.size());
+
+		for (PresignRequest request : requests) {
+			result.add(presign(request.getHttpMethod(), request.getRequestPath(), request.getQuery(), scope));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Signs a request of which the body is signed in chunks while it is sent, at the current time of the
+	 * clock of this signer. See {@link #signStreaming(HttpMethod, String, QueryStringProcessor, long, Instant)}.
+	 *
+	 * @param httpMethod The http method of the request.
+	 * @param requestPath The request path of the endpoint being called.
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param decodedContentLength The size of the body, or -1 if it is not known up front.
+	 * @return The headers of the request and the means to write its body.
+	 */
+	public StreamingUpload signStreaming(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, long decodedContentLength) {
+		return signStreaming(httpMethod, requestPath, query, decodedContentLength, timestampSource.now());
+	}
+
+	/**
+	 * Signs a request of which the body is signed in chunks while it is sent. The seed signature in the
+	 * Authorization header is created with STREAMING-AWS4-HMAC-SHA256-PAYLOAD in place of the payload hash,
+	 * so no part of the body is needed up front. The x-amz-content-sha256 header is always signed, and so
+	 * is the x-amz-decoded-content-length header if the decoded content length is known. The Content-Encoding
+	 * header is not signed.
+	 *
+	 * @param httpMethod The http method of the request.
+	 * @param requestPath The request path of the endpoint being called.
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param decodedContentLength The size of the body, or -1 if it is not known up front.
+	 * @param timestamp The time of the request.
+	 * @return The headers of the request and the means to write its body.
+	 * @throws DEPSigningException Thrown if the signing key could not be derived.
+	 */
+	public StreamingUpload signStreaming(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, long decodedContentLength,
+			Instant timestamp) {
+		requireNonNull(timestamp, "timestamp");
+
+		return signStreaming(httpMethod, requestPath, query, decodedContentLength, timestampSource.at(timestamp));
+	}
+
+	private StreamingUpload signStreaming(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, long decodedContentLength,
+			TimestampSource.Timestamp timestamp) {
+		requireNonNull(httpMethod, "httpMethod");
+		requireNonNull(requestPath, "requestPath");
+
+		if (decodedContentLength < -1) {
+			throw new IllegalArgumentException("The decoded content length cannot be negative, or -1 if it is not known.");
+		}
+
+		SigningScope scope = getSigningScope(getCredentials(), timestamp);
+
+		AuthenticationService service = createAuthenticationService(scope, httpMethod, requestPath,
+				query != null ? query.getQueryString(true) : null, timestamp)
+					.payloadHash(ChunkEncoder.STREAMING_PAYLOAD)
+					.signContentSha256(true)
+					.decodedContentLength(decodedContentLength >= 0 ? Long.toString(decodedContentLength) : null)
+				.build();
+
+		String seedSignature = service.generateSignature();
+		String authorizationPrefix = signContentSha256 && decodedContentLength < 0 ? scope.authorizationPrefix : scope.credentials.getCredentialPrefix()
+				+ scope.credentialScope + ", SignedHeaders=" + service.getSignedHeaders() + ", Signature=";
+
+		AuthenticationHeaders headers = DEPAuthenticationHeaders
+				.builder()
+					.authorizationString(authorizationPrefix + seedSignature)
+					.xAmzDate(timestamp.getAmzDate())
+					.xAmzContentSha256(ChunkEncoder.STREAMING_PAYLOAD)
+				.build();
+
+		return new StreamingUpload(headers, decodedContentLength, chunkSize, new ChunkEncoder(scope.signingKey, timestamp.getAmzDate(),
+				scope.credentialScope, seedSignature, chunkSize, decodedContentLength, metrics));
+	}
+
+	/**
+	 * @return The access key the next request will be signed with.
+	 */
+	public String getAccessKey() {
+		return getCredentials().getAccessKey();
+	}
+
+	/**
+	 * @return The region of the credential scope this signer signs for.
+	 */
+	public String getRegion() {
+		return region;
+	}
+
+	/**
+	 * @return The service of the credential scope this signer signs for.
+	 */
+	public String getService() {
+		return service;
+	}
+
+	/**
+	 * Signs a request within a signing scope that was created up front, or with the signing scope of the
+	 * current credentials if it is null. The fixed parts of the canonical request are taken from the
+	 * endpoint template, if one is given.
+	 */
+	AuthenticationHeaders sign(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, Payload body,
+			TimestampSource.Timestamp timestamp, SigningScope scope, EndpointTemplate endpoint) {
+		requireNonNull(httpMethod, "httpMethod");
+		requireNonNull(requestPath, "requestPath");
+
+		if (scope == null) {
+			scope = getSigningScope(getCredentials(), timestamp);
+		}
+
+		AuthenticationService service = createAuthenticationService(scope, httpMethod, requestPath,
+				query != null ? query.getQueryString(true) : null, timestamp)
+					.body(body)
+					.signContentSha256(signContentSha256)
+					.endpoint(endpoint)
+				.build();
+
+		return DEPAuthenticationHeaders
+				.builder()
+					.authorizationString(scope.authorizationPrefix + service.generateSignature())
+					.xAmzDate(timestamp.getAmzDate())
+					.xAmzContentSha256(signContentSha256 ? service.getPayloadHash() : null)
+				.build();
+	}
+
+	/**
+	 * Returns the credential scope, the start of the Authorization header and the signing key for the
+	 * given credentials and the date of the timestamp. The last result is kept, so they are only created
+	 * again when the credentials or the date change.
+	 *
+	 * @throws DEPSigningException Thrown if the signing key could not be derived.
+	 */
+	SigningScope getSigningScope(DEPCredentials credentials, TimestampSource.Timestamp timestamp) {
+		SigningScope result = signingScope;
+		String requestDate = timestamp.getRequestDate();
+
+		if (result != null && result.credentials == credentials && result.requestDate.equals(requestDate)) {
+			recordKeyCacheHit();
+
+			return result;
+		}
+
+		String credentialScope = defaultScope ? timestamp.getCredentialScope()
+				: AuthenticationService.createCredentialScope(requestDate, region, service);
+		HmacSha256Key signingKey;
+
+		try {
+			signingKey = AuthenticationService.lookupSigningKey(signingKeyCache, credentials.getAccessSecret(), requestDate, region, service,
+					metrics);
+		} catch (InvalidKeyException e) {
+			throw new DEPSigningException("The signing key could not be derived.", e);
+		}
+
+		result = new SigningScope(credentials, requestDate, credentialScope, credentials.getCredentialPrefix() + credentialScope
+				+ ", SignedHeaders=" + (signContentSha256 ? "host;x-amz-content-sha256;x-amz-date" : "host;x-amz-date") + ", Signature=",
+				signingKey);
+
+		signingScope = result;
+
+		return result;
+	}
+
+	/**
+	 * @return The credentials the next request will be signed with. Take them once per request, so that a
+	 * rotation halfway through a request does not mix the access key of one set with the secret of another.
+	 */
+	DEPCredentials getCredentials() {
+		DEPCredentials result = credentialsSource.getCredentials();
+
+		if (result == null) {
+			throw new DEPSigningException("The credentials source did not supply any credentials.", null);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Records a reused signing key as a key cache hit, since it takes the place of a lookup in the cache.
+	 */
+	void recordKeyCacheHit() {
+		if (metrics.isEnabled()) {
+			metrics.recordKeyCacheHit();
+		}
+	}
+
+	/**
+	 * @return A builder with the parts of the canonical request and the signing key that every request of this
+	 * signer shares. The caller adds the payload and how it is signed.
+	 */
+	private AuthenticationService.AuthenticationServiceBuilder createAuthenticationService(SigningScope scope, HttpMethod httpMethod,
+			String requestPath, String queryString, TimestampSource.Timestamp timestamp) {
+		return AuthenticationService
+			.builder()
+				.accessSecret(scope.credentials.getAccessSecret())
+				.httpMethod(httpMethod.name())
+				.requestPath(requestPath)
+				.queryString(queryString)
+				.requestDate(timestamp.getRequestDate())
+				.timestamp(timestamp.getAmzDate())
+				.credentialScope(scope.credentialScope)
+				.hostName(hostName)
+				.signingKeyCache(signingKeyCache)
+				.signingKey(scope.signingKey)
+				.metrics(metrics)
+				.region(region)
+				.service(service);
+	}
+
+	SigningKeyCache getSigningKeyCache() {
+		return signingKeyCache;
+	}
+
+	TimestampSource getTimestampSource() {
+		return timestampSource;
+	}
+
+	private PresignedUrl presign(HttpMethod httpMethod, String requestPath, QueryStringProcessor query, PresignScope scope) {
+		requireNonNull(httpMethod, "httpMethod");
+		requireNonNull(requestPath, "requestPath");
+
+		TimestampSource.Timestamp timestamp = scope.timestamp;
+		String queryString = scope.createCanonicalQueryString(query != null ? query.getQueryString(true) : null);
+
+		SigningScope signingScope = scope.signingScope;
+
+		AuthenticationService service = createAuthenticationService(signingScope, httpMethod, requestPath, queryString, timestamp)
+					.payloadHash(AuthenticationService.UNSIGNED_PAYLOAD)
+					.presigned(true)
+				.build();
+
+		return new PresignedUrl(httpMethod, hostName.substring(HOST_PREFIX.length()), requestPath,
+				queryString + "&X-Amz-Signature=" + service.generateSignature(), scope.expiration);
+	}
+
+	private static void requireNonNull(Object value, String name) {
+		if (value == null) {
+			throw new IllegalArgumentException("No " + name + " provided. The " + name + " is mandatory and cannot be null.");
+		}
+	}
+
+
+
+	/**
+	 * The values that are the same for all requests signed with the same credentials on the same date.
+	 */
+	static final class SigningScope {
+		private final DEPCredentials credentials;
+		private final String requestDate;
+		private final String credentialScope;
+		private final String authorizationPrefix;
+		private final HmacSha256Key signingKey;
+
+		private SigningScope(DEPCredentials credentials, String requestDate, String credentialScope, String authorizationPrefix,
+				HmacSha256Key signingKey) {
+			this.credentials = credentials;
+			this.requestDate = requestDate;
+			this.credentialScope = credentialScope;
+			this.authorizationPrefix = authorizationPrefix;
+			this.signingKey = signingKey;
+		}
+	}
+
+	/**
+	 * The signing parameters of the query string of presigned URLs that share the same timestamp and expiry.
+	 */
+	private static final class PresignScope {
+		private final SigningScope signingScope;
+		private final TimestampSource.Timestamp timestamp;
+		private final Instant expiration;
+		private final String[] parameters;
+
+		private PresignScope(SigningScope signingScope, TimestampSource.Timestamp timestamp, Duration expiresIn) {
+			if (expiresIn == null || expiresIn.getSeconds() < 1 || expiresIn.compareTo(MAXIMUM_PRESIGN_EXPIRATION) > 0) {
+				throw new IllegalArgumentException("The expiry of a presigned URL must be between 1 second and 7 days.");
+			}
+
+			this.signingScope = signingScope;
+			this.timestamp = timestamp;
+			this.expiration = Instant.ofEpochSecond(timestamp.getEpochSecond() + expiresIn.getSeconds());
+
+			// In the order in which they are sorted in the canonical query string
+			this.parameters = new String[] {
+					"X-Amz-Algorithm=AWS4-HMAC-SHA256",
+					"X-Amz-Credential=" + PercentEncoder.encode(signingScope.credentials.getAccessKey() + "/" + signingScope.credentialScope),
+					"X-Amz-Date=" + timestamp.getAmzDate(),
+					"X-Amz-Expires=" + expiresIn.getSeconds(),
+					"X-Amz-SignedHeaders=host"
+			};
+		}
+
+		/**
+		 * Merges the signing parameters into the sorted, encoded query string of the request.
+		 */
+		private String createCanonicalQueryString(String query) {
+			StringBuilder result = new StringBuilder(256 + (query != null ? query.length() : 0));
+			int next = 0;
+
+			if (query != null && !query.isEmpty()) {
+				int start = 0;
+
+				while (start <= query.length()) {
+					int end = query.indexOf('&', start);
+
+					if (end < 0) {
+						end = query.length();
+					}
+
+					String parameter = query.substring(start, end);
+
+					while (next < parameters.length && parameters[next].compareTo(parameter) < 0) {
+						append(result, parameters[next++]);
+					}
+
+					append(result, parameter);
+					start = end + 1;
+				}
+			}
+
+			while (next < parameters.length) {
+				append(result, parameters[next++]);
+			}
+
+			return result.toString();
+		}
+
+		private void append(StringBuilder result, String parameter) {
+			if (result.length() > 0) {
+				result.append('&');
+			}
+
+			result.append(parameter);
+		}
+	}
+
+
+
+	public static class DEPSignerBuilder {
+		private String accessKey;
+		private String accessSecret;
+		private CredentialsSource credentialsSource;
+		private String hostName;
+		private boolean signContentSha256;
+		private String region = AuthenticationService.DEFAULT_REGION;
+		private String service = AuthenticationService.DEFAULT_SERVICE;
+		private int chunkSize = StreamingUpload.DEFAULT_CHUNK_SIZE;
+		private Clock clock;
+		private SigningMetrics metrics;
+		private SigningKeyCache signingKeyCache;
+		private TimestampSource timestampSource;
+
+		private DEPSignerBuilder() {}
+
+		/**
+		 * @param accessKey (Mandatory) - The provided access key. Not needed if a credentials source is given.
+		 * @return
+		 */
+		public DEPSignerBuilder accessKey(String accessKey) {
+			this.accessKey = accessKey;
+
+			return this;
+		}
+
+		/**
+		 * @param accessSecret (Mandatory) - The provided access secret. Not needed if a credentials source is given.
+		 * @return
+		 */
+		public DEPSignerBuilder accessSecret(String accessSecret) {
+			this.accessSecret = accessSecret;
+
+			return this;
+		}
+
+		/**
+		 * @param credentialsSource (Optional) - Supplies the credentials for every request, in place of the
+		 * access key and access secret. Pass RotatingCredentials to pick up rotated credentials.
+		 * @return
+		 */
+		public DEPSignerBuilder credentials(CredentialsSource credentialsSource) {
+			this.credentialsSource = credentialsSource;
+
+			return this;
+		}
+
+		/**
+		 * @param hostName (Mandatory) - The provided host name.
+		 * @return
+		 */
+		public DEPSignerBuilder hostName(String hostName) {
+			if (hostName != null && !hostName.isEmpty() && !hostName.startsWith(HOST_PREFIX)) {
+				hostName = HOST_PREFIX + hostName;
+			}
+
+			this.hostName = hostName;
+
+			return this;
+		}
+
+		/**
+		 * @param signContentSha256 (Optional) - If true, the payload hash is added to the signed headers as
+		 * the x-amz-content-sha256 header. The header value is returned as part of the AuthenticationHeaders.
+		 * @return
+		 */
+		public DEPSignerBuilder signContentSha256(boolean signContentSha256) {
+			this.signContentSha256 = signContentSha256;
+
+			return this;
+		}
+
+		/**
+		 * @param region (Optional) - The region of the credential scope. Defaults to eu-west-1.
+		 * @return
+		 */
+		public DEPSignerBuilder region(String region) {
+			this.region = region;
+
+			return this;
+		}
+
+		/**
+		 * @param service (Optional) - The service of the credential scope. Defaults to execute-api.
+		 * @return
+		 */
+		public DEPSignerBuilder service(String service) {
+			this.service = service;
+
+			return this;
+		}
+
+		/**
+		 * @param chunkSize (Optional) - The number of bytes of the body of a streaming upload that are signed
+		 * together. At least 8 KiB. Defaults to 64 KiB.
+		 * @return
+		 */
+		public DEPSignerBuilder chunkSize(int chunkSize) {
+			this.chunkSize = chunkSize;
+
+			return this;
+		}
+
+		/**
+		 * @param clock (Optional) - The clock that supplies the time of requests that are signed without
+		 * a timestamp. Defaults to the system clock.
+		 * @return
+		 */
+		public DEPSignerBuilder clock(Clock clock) {
+			this.clock = clock;
+
+			return this;
+		}
+
+		/**
+		 * @param metrics (Optional) - Receives the time spent in every stage of signing, the key cache
+		 * hits and the failures. Defaults to SigningMetrics.NOOP.
+		 * @return
+		 */
+		public DEPSignerBuilder metrics(SigningMetrics metrics) {
+			this.metrics = metrics;
+
+			return this;
+		}
+
+		/**
+		 * Replaces the shared signing key cache, for signers that keep their keys apart from the other signers.
+		 */
+		DEPSignerBuilder signingKeyCache(SigningKeyCache signingKeyCache) {
+			this.signingKeyCache = signingKeyCache;
+
+			return this;
+		}
+
+		/**
+		 * Shares a timestamp source between signers, which takes precedence over the clock.
+		 */
+		DEPSignerBuilder timestampSource(TimestampSource timestampSource) {
+			this.timestampSource = timestampSource;
+
+			return this;
+		}
+
+		/**
+		 * @return An instance of the DEPSigner class.
+		 * @throws DEPValidationException Thrown if one or more of the mandatory fields are not specified, or the region or service is invalid.
+		 */
+		public DEPSigner build() throws DEPValidationException {
+			if (credentialsSource == null) {
+				if (accessKey == null) {
+					throw new DEPValidationException("No accessKey provided. The accessKey is a mandatory field and cannot be null.");
+				}
+				if (accessSecret == null) {
+					throw new DEPValidationException("No accessSecret provided. The accessSecret is a mandatory field and cannot be null.");
+				}
+
+				credentialsSource = DEPCredentials.of(accessKey, accessSecret);
+			}
+			if (hostName == null || hostName.isEmpty()) {
+				throw new DEPValidationException("No hostName provided. The hostName is a mandatory field and cannot be null.");
+			}
+			if (!AuthenticationService.isValidScopeComponent(region)) {
+				throw new DEPValidationException("The region cannot be null or empty, and cannot contain a '/'.");
+			}
+			if (!AuthenticationService.isValidScopeComponent(service)) {
+				throw new DEPValidationException("The service cannot be null or empty, and cannot contain a '/'.");
+			}
+			if (chunkSize < StreamingUpload.MINIMUM_CHUNK_SIZE) {
+				throw new IllegalArgumentException("The chunk size must be at least " + StreamingUpload.MINIMUM_CHUNK_SIZE + " bytes.");
+			}
+
+			return new DEPSigner(this);
+		}
+	}
+}
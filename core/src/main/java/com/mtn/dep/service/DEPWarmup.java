@@ -0,0 +1,119 @@
+package com.mtn.dep.service;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * Prepares the library for signing before the first request arrives. The first request of a new JVM
+ * otherwise pays for the JCA provider lookup of HmacSHA256 and SHA-256, the loading and initialisation
+ * of the signing classes and the first key derivation, which can add hundreds of milliseconds to the
+ * cold start of a short-lived function. Calling warmUp during startup moves that cost out of the path
+ * of the first request.
+ *
+ * The warm-up signs and verifies a few requests with a throwaway access key and secret. Its signing keys
+ * are kept in a private cache, or removed from the shared cache afterwards, so they never take the place
+ * of real ones.
+ *
+ * <i>Note:</i> The Mac and MessageDigest instances are bound to the thread that calls warmUp. Other threads
+ * still create their own on first use, which is cheap once the providers have been loaded.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class DEPWarmup {
+
+	private static final String ACCESS_KEY = "WARMUPKEY";
+	private static final String ACCESS_SECRET = "WARMUPSECRET";
+	private static final String HOST_NAME = "warmup.invalid";
+	private static final String BODY = "{\"warm\":\"up\"}";
+
+	private DEPWarmup() {}
+
+	/**
+	 * Signs and verifies a few throwaway requests through every signing path, so that the classes they use
+	 * are loaded and the crypto context of the calling thread is created. Can be called more than once.
+	 *
+	 * @return The time the warm-up took.
+	 */
+	public static Duration warmUp() {
+		long start = System.nanoTime();
+		SigningKeyCache signingKeyCache = new SigningKeyCache(16);
+
+		try {
+			QueryStringProcessor query = QueryStringProcessor.parse("expand=subscription%28status%3D2%29&page=1");
+
+			DEPSigner signer = DEPSigner
+				.builder()
+					.accessKey(ACCESS_KEY)
+					.accessSecret(ACCESS_SECRET)
+					.hostName(HOST_NAME)
+					.signContentSha256(true)
+					.signingKeyCache(signingKeyCache)
+				.build();
+
+			AuthenticationHeaders headers = signer.sign(HttpMethod.POST, "/warmup", query, BODY);
+
+			signer.sign(HttpMethod.PUT, "/warmup", null, Payload.of(new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8))));
+			signer.endpoint(HttpMethod.GET, "/warmup").sign(query, (String) null);
+			signer.presign(HttpMethod.GET, "/warmup", query, Duration.ofMinutes(1));
+
+			warmUpVerifier(query, headers);
+			warmUpAuthentication(query);
+		} catch (DEPValidationException e) {
+			// The warm-up requests are complete, so this would point to a bug in the library
+			throw new IllegalStateException("The warm-up requests could not be built.", e);
+		}
+
+		return Duration.ofNanos(System.nanoTime() - start);
+	}
+
+	private static void warmUpVerifier(QueryStringProcessor query, AuthenticationHeaders headers) throws DEPValidationException {
+		DEPSignatureVerifier verifier = DEPSignatureVerifier
+			.builder()
+				.secretResolver(accessKey -> ACCESS_KEY.equals(accessKey) ? ACCESS_SECRET : null)
+				.clock(Clock.systemUTC())
+				.keyCacheSize(1)
+			.build();
+
+		verifier.verify(VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.POST)
+				.requestPath("/warmup")
+				.rawQuery(query.getUnsortedQueryString(true))
+				.hostName(HOST_NAME)
+				.authorization(headers.getAuthorizationString())
+				.xAmzDate(headers.getXAmzDate())
+				.xAmzContentSha256(headers.getXAmzContentSha256())
+				.body(BODY)
+			.build());
+	}
+
+	/**
+	 * DEPAuthentication always makes use of the shared signing key cache, so the throwaway key is removed
+	 * from it again.
+	 */
+	private static void warmUpAuthentication(QueryStringProcessor query) throws DEPValidationException {
+		try {
+			DEPAuthentication
+				.builder()
+					.accessKey(ACCESS_KEY)
+					.accessSecret(ACCESS_SECRET)
+					.hostName(HOST_NAME)
+					.httpMethod(HttpMethod.POST)
+					.requestPath("/warmup")
+					.queryStringProcessor(query)
+					.body(BODY)
+					.timestamp(ZonedDateTime.now(Clock.systemUTC()))
+				.build()
+				.createAuthenticationHeaders();
+		} finally {
+			SigningKeyCache.shared().removeAll(ACCESS_SECRET);
+		}
+	}
+}
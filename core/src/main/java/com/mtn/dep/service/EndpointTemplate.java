@@ -0,0 +1,153 @@
+package com.mtn.dep.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * A signing template for a single endpoint of the DEP platform, created through {@link DEPSigner#endpoint(HttpMethod, String)}.
+ * The parts of the canonical request that are the same for every call to the endpoint (the http method, the
+ * request path, the host header and the signed headers) are encoded to bytes once, so that signing a request
+ * only has to process the query string, the timestamp and the payload hash. If the http method and request path
+ * fill at least one SHA-256 block, a digest that has already processed them is kept and cloned for every request.
+ *
+ * <i>Note:</i> A template is immutable and can be shared by every thread that calls the endpoint.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class EndpointTemplate {
+
+	private static final int DIGEST_BLOCK_SIZE = 64;
+
+	private final DEPSigner signer;
+	private final HttpMethod httpMethod;
+	private final String requestPath;
+
+	private final byte[] methodAndPath;
+	private final MessageDigest prototype;
+	private final byte[] hostHeader;
+	private final byte[] contentSha256Suffix;
+	private final byte[] signedHeaders;
+
+	EndpointTemplate(DEPSigner signer, HttpMethod httpMethod, String requestPath, String hostName, boolean signContentSha256) {
+		this.signer = signer;
+		this.httpMethod = httpMethod;
+		this.requestPath = requestPath;
+
+		this.methodAndPath = utf8(httpMethod.name() + "\n" + requestPath + "\n");
+		this.prototype = methodAndPath.length >= DIGEST_BLOCK_SIZE ? createPrototype(methodAndPath) : null;
+		this.hostHeader = utf8("\n" + hostName + "\n" + (signContentSha256 ? "x-amz-content-sha256:" : "x-amz-date:"));
+		this.contentSha256Suffix = signContentSha256 ? utf8("\nx-amz-date:") : null;
+		this.signedHeaders = utf8("\n\n" + (signContentSha256 ? "host;x-amz-content-sha256;x-amz-date" : "host;x-amz-date") + "\n");
+	}
+
+	/**
+	 * Creates the Authorization and X-Amz-Date headers for a call to this endpoint, made at the current
+	 * time of the clock of the signer.
+	 *
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param body The JSON body of the request, or null if there is none.
+	 * @return The generated headers.
+	 */
+	public AuthenticationHeaders sign(QueryStringProcessor query, String body) {
+		return sign(query, body != null ? Payload.of(body) : null);
+	}
+
+	/**
+	 * Creates the Authorization and X-Amz-Date headers for a call to this endpoint, made at the current
+	 * time of the clock of the signer.
+	 *
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param body The body of the request, or null if there is none.
+	 * @return The generated headers.
+	 */
+	public AuthenticationHeaders sign(QueryStringProcessor query, Payload body) {
+		return signer.sign(httpMethod, requestPath, query, body, signer.getTimestampSource().now(), null, this);
+	}
+
+	/**
+	 * Creates the Authorization and X-Amz-Date headers for a call to this endpoint.
+	 *
+	 * @param query The query parameters of the request, or null if there are none.
+	 * @param body The body of the request, or null if there is none.
+	 * @param timestamp The time at which the request is made.
+	 * @return The generated headers.
+	 */
+	public AuthenticationHeaders sign(QueryStringProcessor query, Payload body, Instant timestamp) {
+		if (timestamp == null) {
+			throw new IllegalArgumentException("No timestamp provided. The timestamp is mandatory and cannot be null.");
+		}
+
+		return signer.sign(httpMethod, requestPath, query, body, signer.getTimestampSource().at(timestamp), null, this);
+	}
+
+	/**
+	 * @return The http method of the endpoint.
+	 */
+	public HttpMethod getHttpMethod() {
+		return httpMethod;
+	}
+
+	/**
+	 * @return The request path of the endpoint.
+	 */
+	public String getRequestPath() {
+		return requestPath;
+	}
+
+	/**
+	 * Streams the canonical request into a digest, using the pre-encoded parts of this template, and
+	 * stores its hash in the given array.
+	 */
+	void createCanonicalRequestHash(CryptoContext context, String queryString, String timestamp, String payloadHash, byte[] result) {
+		CanonicalRequestWriter writer;
+
+		if (prototype != null) {
+			writer = context.writer().begin(clonePrototype());
+		} else {
+			writer = context.writer().begin(context.digest()).append(methodAndPath);
+		}
+
+		writer.append(queryString).append(hostHeader);
+
+		if (contentSha256Suffix != null) {
+			writer.append(payloadHash).append(contentSha256Suffix);
+		}
+
+		writer.append(timestamp)
+			.append(signedHeaders)
+			.append(payloadHash)
+			.finish(result);
+	}
+
+	private MessageDigest clonePrototype() {
+		try {
+			return (MessageDigest) prototype.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException("The " + CryptoContext.DIGEST_ALGORITHM + " digest cannot be cloned.", e);
+		}
+	}
+
+	/**
+	 * @return A digest that has processed the given bytes, or null if the digest of the platform cannot be cloned.
+	 */
+	private static MessageDigest createPrototype(byte[] bytes) {
+		try {
+			MessageDigest digest = (MessageDigest) CryptoContext.get().digest().clone();
+
+			digest.update(bytes);
+
+			return digest;
+		} catch (CloneNotSupportedException e) {
+			return null;
+		}
+	}
+
+	private static byte[] utf8(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,164 @@
+package com.mtn.dep.service;
+
+import java.security.DigestException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ *
+ * A derived signing key together with the HMAC-SHA256 state it starts every signature from. An HMAC
+ * hashes the key, XOR-ed with the inner and the outer pad, ahead of the data and the inner hash. Since
+ * a signing key is used for every request of a day, both pads are hashed once, when the key is derived,
+ * and every signature starts from a clone of those digests instead of initialising a Mac. That leaves out
+ * the key setup and two runs of the SHA-256 compression function per signature.
+ *
+ * If the SHA-256 digest of the installed provider cannot be cloned, signatures are created with the Mac
+ * of the CryptoContext instead.
+ *
+ * <i>Note:</i> The digests held by a key are never updated after it is created, so a key can be shared by
+ * every thread that signs requests.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+final class HmacSha256Key {
+
+	static final int LENGTH = 32;
+
+	private static final int BLOCK_SIZE = 64;
+	private static final byte INNER_PAD = 0x36;
+	private static final byte OUTER_PAD = 0x5c;
+
+	// Probed once, since the provider of the digest does not change while the application runs
+	private static final boolean PRECOMPUTABLE = isCloneable(newDigest());
+
+	private final byte[] key;
+	private final MessageDigest inner;
+	private final MessageDigest outer;
+
+	private HmacSha256Key(byte[] key, MessageDigest inner, MessageDigest outer) {
+		this.key = key;
+		this.inner = inner;
+		this.outer = outer;
+	}
+
+	/**
+	 * @param key The signing key. The array is kept and must not be modified afterwards.
+	 * @return The key with its inner and outer digests precomputed, if the digest supports cloning.
+	 */
+	static HmacSha256Key of(byte[] key) {
+		if (!PRECOMPUTABLE) {
+			return new HmacSha256Key(key, null, null);
+		}
+
+		MessageDigest inner = newDigest();
+		MessageDigest outer = newDigest();
+
+		byte[] blockKey = key.length > BLOCK_SIZE ? inner.digest(key) : key;
+		byte[] block = new byte[BLOCK_SIZE];
+
+		for (int i = 0; i < BLOCK_SIZE; i++) {
+			block[i] = (byte) ((i < blockKey.length ? blockKey[i] : 0) ^ INNER_PAD);
+		}
+
+		inner.update(block);
+
+		for (int i = 0; i < BLOCK_SIZE; i++) {
+			block[i] ^= INNER_PAD ^ OUTER_PAD;
+		}
+
+		outer.update(block);
+
+		Arrays.fill(block, (byte) 0);
+
+		return new HmacSha256Key(key, inner, outer);
+	}
+
+	/**
+	 * @return The raw signing key. The array is shared and must not be modified.
+	 */
+	byte[] getKey() {
+		return key;
+	}
+
+	/**
+	 * @return True if signatures start from the precomputed digests, false if a Mac has to be used.
+	 */
+	boolean isPrecomputed() {
+		return inner != null;
+	}
+
+	/**
+	 * @return A digest that has hashed the key XOR-ed with the inner pad, ready for the data to sign.
+	 */
+	MessageDigest beginSignature() {
+		return copy(inner);
+	}
+
+	/**
+	 * Turns the inner hash into the signature by hashing it with the key XOR-ed with the outer pad.
+	 *
+	 * @param hash The inner hash, which is replaced by the signature.
+	 */
+	void completeSignature(byte[] hash) {
+		MessageDigest digest = copy(outer);
+
+		digest.update(hash, 0, LENGTH);
+
+		try {
+			digest.digest(hash, 0, LENGTH);
+		} catch (DigestException e) {
+			throw new IllegalArgumentException("The output array is too small to hold the signature.", e);
+		}
+	}
+
+	/**
+	 * @param data The data to sign.
+	 * @return A new array holding the HMAC-SHA256 of the data.
+	 */
+	byte[] sign(byte[] data) throws InvalidKeyException {
+		if (!isPrecomputed()) {
+			return CryptoContext.get().hmac(key, data);
+		}
+
+		MessageDigest digest = beginSignature();
+
+		digest.update(data);
+
+		byte[] result = digest.digest();
+
+		completeSignature(result);
+
+		return result;
+	}
+
+	private static MessageDigest copy(MessageDigest digest) {
+		try {
+			return (MessageDigest) digest.clone();
+		} catch (CloneNotSupportedException e) {
+			// Only keys of which the digest could be cloned are precomputed
+			throw new IllegalStateException("The " + CryptoContext.DIGEST_ALGORITHM + " digest cannot be cloned.", e);
+		}
+	}
+
+	private static boolean isCloneable(MessageDigest digest) {
+		try {
+			digest.clone();
+
+			return true;
+		} catch (CloneNotSupportedException e) {
+			return false;
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(CryptoContext.DIGEST_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException("The " + CryptoContext.DIGEST_ALGORITHM + " algorithm is not available.", e);
+		}
+	}
+}
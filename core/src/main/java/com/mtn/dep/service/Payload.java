@@ -0,0 +1,337 @@
+package com.mtn.dep.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+import com.mtn.dep.exception.PayloadReadException;
+
+/**
+ *
+ * The body of a request for which the headers are generated. Besides a plain String, the body can be
+ * supplied as an InputStream, a ReadableByteChannel or a file Path, in which case it is hashed while
+ * it is being read and never copied onto the heap as a whole. Files are hashed through a memory-mapped
+ * FileChannel, so memory use stays constant regardless of the size of the payload. ByteBuffers, such as
+ * the buffers of a Netty ByteBuf or Spring DataBuffer, are hashed in place, direct buffers included.
+ *
+ * <i>Note:</i> An InputStream or ReadableByteChannel can only be read once. Signing consumes it, so
+ * the text of such a payload is only available if it is requested before the headers are generated.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public abstract class Payload {
+
+	private static final long MAPPING_WINDOW_SIZE = 64L * 1024 * 1024;
+
+	Payload() {}
+
+	/**
+	 * @param body The body as text. It will be UTF-8 encoded when hashed.
+	 * @return A payload backed by the given text.
+	 */
+	public static Payload of(String body) {
+		return new TextPayload(body);
+	}
+
+	/**
+	 * @param body A stream containing the UTF-8 encoded body. The stream is not closed.
+	 * @return A payload that is hashed while the stream is read.
+	 */
+	public static Payload of(InputStream body) {
+		return new ChannelPayload(Channels.newChannel(body));
+	}
+
+	/**
+	 * @param body A channel containing the UTF-8 encoded body. The channel is not closed.
+	 * @return A payload that is hashed while the channel is read.
+	 */
+	public static Payload of(ReadableByteChannel body) {
+		return new ChannelPayload(body);
+	}
+
+	/**
+	 * @param body The file containing the UTF-8 encoded body.
+	 * @return A payload that is hashed through a memory-mapped view of the file.
+	 */
+	public static Payload of(Path body) {
+		return new FilePayload(body);
+	}
+
+	/**
+	 * The remaining bytes of the buffers, between their position and limit, form the body. The buffers are
+	 * neither copied nor modified, but their content must not change until the headers have been generated.
+	 *
+	 * @param body One or more buffers containing the UTF-8 encoded body, in order.
+	 * @return A payload that is hashed directly from the given buffers.
+	 */
+	public static Payload of(ByteBuffer... body) {
+		ByteBuffer[] buffers = new ByteBuffer[body.length];
+
+		for (int i = 0; i < body.length; i++) {
+			buffers[i] = body[i].duplicate();
+		}
+
+		return new BufferPayload(buffers);
+	}
+
+	/**
+	 * Returns the payload as text. For streams and channels this buffers the remaining content in
+	 * memory, for files the content is read every time this method is called.
+	 *
+	 * @return The payload as text.
+	 * @throws IllegalStateException If the stream or channel has already been consumed by signing.
+	 * @throws PayloadReadException If the payload could not be read.
+	 */
+	public abstract String getText();
+
+	/**
+	 * Hashes the payload with the given digest, using the context buffer for intermediate reads.
+	 *
+	 * @return The lowercase hex encoded SHA-256 hash of the payload.
+	 */
+	String hashHex(CryptoContext context) {
+		MessageDigest digest = context.digest();
+
+		try {
+			update(digest, context.buffer());
+		} catch (IOException e) {
+			throw new PayloadReadException(e);
+		}
+
+		return CryptoContext.toHex(digest.digest());
+	}
+
+	abstract void update(MessageDigest digest, byte[] buffer) throws IOException;
+
+	/**
+	 * @return An estimate of the number of bytes that need to be hashed, or -1 if it is not known up front.
+	 */
+	abstract long estimateSize();
+
+
+
+	private static final class TextPayload extends Payload {
+		private final String text;
+
+		private TextPayload(String text) {
+			this.text = text;
+		}
+
+		@Override
+		public String getText() {
+			return text;
+		}
+
+		@Override
+		String hashHex(CryptoContext context) {
+			byte[] hash = context.hashBuffer();
+
+			context.writer().begin(context.digest()).append(text).finish(hash);
+
+			return CryptoContext.toHex(hash);
+		}
+
+		@Override
+		void update(MessageDigest digest, byte[] buffer) {
+			digest.update(text.getBytes(StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * @return The number of bytes in the UTF-8 encoding of the text, counted without encoding it.
+		 */
+		@Override
+		long estimateSize() {
+			long size = 0;
+
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+
+				if (c < 0x80) {
+					size += 1;
+				} else if (c < 0x800) {
+					size += 2;
+				} else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+					size += 4;
+					i++;
+				} else if (Character.isSurrogate(c)) {
+					// An unpaired surrogate is encoded as a single replacement byte
+					size += 1;
+				} else {
+					size += 3;
+				}
+			}
+
+			return size;
+		}
+	}
+
+	private static final class ChannelPayload extends Payload {
+		private ReadableByteChannel channel;
+		// The bytes as they were read, so that a body that is not valid UTF-8 is still hashed as it is sent
+		private byte[] content;
+		private String text;
+		private String hash;
+
+		private ChannelPayload(ReadableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public synchronized String getText() {
+			if (text == null) {
+				if (content == null) {
+					if (channel == null) {
+						throw new IllegalStateException("The payload has already been consumed.");
+					}
+
+					try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+						ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+						while (channel.read(buffer) >= 0) {
+							output.write(buffer.array(), 0, buffer.position());
+							buffer.clear();
+						}
+
+						content = output.toByteArray();
+						channel = null;
+					} catch (IOException e) {
+						throw new PayloadReadException(e);
+					}
+				}
+
+				text = new String(content, StandardCharsets.UTF_8);
+			}
+
+			return text;
+		}
+
+		@Override
+		synchronized String hashHex(CryptoContext context) {
+			// The channel can only be read once, so the hash is kept for subsequent signing
+			if (hash == null) {
+				hash = super.hashHex(context);
+			}
+
+			return hash;
+		}
+
+		@Override
+		synchronized void update(MessageDigest digest, byte[] buffer) throws IOException {
+			if (content != null) {
+				digest.update(content);
+
+				return;
+			}
+
+			if (channel == null) {
+				throw new IllegalStateException("The payload has already been consumed.");
+			}
+
+			ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+
+			while (channel.read(wrapped) >= 0) {
+				digest.update(buffer, 0, wrapped.position());
+				wrapped.clear();
+			}
+
+			channel = null;
+		}
+
+		@Override
+		synchronized long estimateSize() {
+			if (hash != null) {
+				return 0;
+			}
+
+			return content != null ? content.length : -1;
+		}
+	}
+
+	private static final class BufferPayload extends Payload {
+		private final ByteBuffer[] buffers;
+
+		private BufferPayload(ByteBuffer[] buffers) {
+			this.buffers = buffers;
+		}
+
+		@Override
+		public String getText() {
+			ByteBuffer content = ByteBuffer.allocate((int) estimateSize());
+
+			for (ByteBuffer buffer : buffers) {
+				content.put(buffer.duplicate());
+			}
+
+			return new String(content.array(), StandardCharsets.UTF_8);
+		}
+
+		@Override
+		void update(MessageDigest digest, byte[] buffer) {
+			for (ByteBuffer body : buffers) {
+				// A duplicate is consumed, so the payload can be hashed more than once and from multiple threads
+				digest.update(body.duplicate());
+			}
+		}
+
+		@Override
+		long estimateSize() {
+			long size = 0;
+
+			for (ByteBuffer buffer : buffers) {
+				size += buffer.remaining();
+			}
+
+			return size;
+		}
+	}
+
+	private static final class FilePayload extends Payload {
+		private final Path path;
+
+		private FilePayload(Path path) {
+			this.path = path;
+		}
+
+		@Override
+		public String getText() {
+			try {
+				return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				throw new PayloadReadException(e);
+			}
+		}
+
+		@Override
+		void update(MessageDigest digest, byte[] buffer) throws IOException {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				long size = channel.size();
+
+				for (long position = 0; position < size; position += MAPPING_WINDOW_SIZE) {
+					MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPING_WINDOW_SIZE, size - position));
+
+					digest.update(window);
+				}
+			}
+		}
+
+		@Override
+		long estimateSize() {
+			try {
+				return Files.size(path);
+			} catch (IOException e) {
+				return -1;
+			}
+		}
+	}
+}
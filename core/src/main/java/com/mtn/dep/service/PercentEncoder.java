@@ -0,0 +1,107 @@
+package com.mtn.dep.service;
+
+/**
+ *
+ * A table driven percent-encoder for the canonical query string, as specified by RFC 3986 and AWS
+ * Signature Version 4. All characters except the unreserved characters (A-Z, a-z, 0-9, '-', '.', '_'
+ * and '~') are encoded as the upper case hex value of each of their UTF-8 bytes. The text is encoded
+ * in a single pass into a buffer that is reused by the calling thread, and is returned as is if none
+ * of its characters need to be encoded.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+final class PercentEncoder {
+
+	private static final boolean[] UNRESERVED = new boolean[128];
+
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+	private static final int MAXIMUM_RETAINED_CAPACITY = 4096;
+
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+	static {
+		for (char c = 'A'; c <= 'Z'; c++) {
+			UNRESERVED[c] = true;
+		}
+		for (char c = 'a'; c <= 'z'; c++) {
+			UNRESERVED[c] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			UNRESERVED[c] = true;
+		}
+
+		UNRESERVED['-'] = true;
+		UNRESERVED['.'] = true;
+		UNRESERVED['_'] = true;
+		UNRESERVED['~'] = true;
+	}
+
+	private PercentEncoder() {}
+
+	/**
+	 * @param text The text to encode.
+	 * @return The percent-encoded text, or the text itself if none of its characters need to be encoded.
+	 */
+	static String encode(String text) {
+		int length = text.length();
+		int start = 0;
+
+		while (start < length && isUnreserved(text.charAt(start))) {
+			start++;
+		}
+
+		if (start == length) {
+			return text;
+		}
+
+		StringBuilder result = BUFFER.get();
+
+		result.setLength(0);
+		result.append(text, 0, start);
+
+		for (int i = start; i < length; i++) {
+			char c = text.charAt(i);
+
+			if (isUnreserved(c)) {
+				result.append(c);
+			} else if (c < 0x80) {
+				appendByte(result, c);
+			} else if (c < 0x800) {
+				appendByte(result, 0xC0 | (c >> 6));
+				appendByte(result, 0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, text.charAt(++i));
+
+				appendByte(result, 0xF0 | (codePoint >> 18));
+				appendByte(result, 0x80 | ((codePoint >> 12) & 0x3F));
+				appendByte(result, 0x80 | ((codePoint >> 6) & 0x3F));
+				appendByte(result, 0x80 | (codePoint & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				// An unpaired surrogate cannot be encoded as UTF-8 and is replaced, as String.getBytes does
+				appendByte(result, '?');
+			} else {
+				appendByte(result, 0xE0 | (c >> 12));
+				appendByte(result, 0x80 | ((c >> 6) & 0x3F));
+				appendByte(result, 0x80 | (c & 0x3F));
+			}
+		}
+
+		String encoded = result.toString();
+
+		if (result.capacity() > MAXIMUM_RETAINED_CAPACITY) {
+			BUFFER.remove();
+		}
+
+		return encoded;
+	}
+
+	private static boolean isUnreserved(char c) {
+		return c < 128 && UNRESERVED[c];
+	}
+
+	private static void appendByte(StringBuilder result, int value) {
+		result.append('%').append(HEX_DIGITS[(value >> 4) & 0x0F]).append(HEX_DIGITS[value & 0x0F]);
+	}
+}
@@ -0,0 +1,98 @@
+package com.mtn.dep.service;
+
+/**
+ *
+ * Describes a single URL that is presigned as part of a bulk call to DEPSigner.presignAll.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class PresignRequest {
+
+	private final HttpMethod httpMethod;
+	private final String requestPath;
+	private final QueryStringProcessor query;
+
+	private PresignRequest(PresignRequestBuilder builder) {
+		this.httpMethod = builder.httpMethod;
+		this.requestPath = builder.requestPath;
+		this.query = builder.query;
+	}
+
+	/**
+	 * An implementation of the builder pattern. Ensure that you supply all
+	 * mandatory fields to avoid a DEPValidationException
+	 *
+	 * @return An instance of PresignRequestBuilder.
+	 */
+	public static PresignRequestBuilder builder() {
+		return new PresignRequestBuilder();
+	}
+
+	public HttpMethod getHttpMethod() {
+		return httpMethod;
+	}
+
+	public String getRequestPath() {
+		return requestPath;
+	}
+
+	public QueryStringProcessor getQuery() {
+		return query;
+	}
+
+
+
+	public static class PresignRequestBuilder {
+		private HttpMethod httpMethod = HttpMethod.GET;
+		private String requestPath;
+		private QueryStringProcessor query;
+
+		private PresignRequestBuilder() {}
+
+		/**
+		 * @param httpMethod (Optional) - The http method the URL is called with. Defaults to GET.
+		 * @return
+		 */
+		public PresignRequestBuilder httpMethod(HttpMethod httpMethod) {
+			this.httpMethod = httpMethod;
+
+			return this;
+		}
+
+		/**
+		 * @param requestPath (Mandatory) - The request path of the endpoint being called.
+		 * @return
+		 */
+		public PresignRequestBuilder requestPath(String requestPath) {
+			this.requestPath = requestPath;
+
+			return this;
+		}
+
+		/**
+		 * @param query (Optional) - The query parameters of the request.
+		 * @return
+		 */
+		public PresignRequestBuilder query(QueryStringProcessor query) {
+			this.query = query;
+
+			return this;
+		}
+
+		/**
+		 * @return An instance of the PresignRequest class.
+		 * @throws DEPValidationException Thrown if one or more of the mandatory fields are not specified.
+		 */
+		public PresignRequest build() throws DEPValidationException {
+			if (httpMethod == null) {
+				throw new DEPValidationException("No httpMethod provided. The httpMethod is a mandatory field and cannot be null.");
+			}
+			if (requestPath == null) {
+				throw new DEPValidationException("No requestPath provided. The requestPath is a mandatory field and cannot be null.");
+			}
+
+			return new PresignRequest(this);
+		}
+	}
+}
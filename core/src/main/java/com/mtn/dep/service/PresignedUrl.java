@@ -0,0 +1,72 @@
+package com.mtn.dep.service;
+
+import java.time.Instant;
+
+/**
+ *
+ * A request of which the signature is carried in the query string instead of the Authorization header.
+ * The query string holds the X-Amz-Algorithm, X-Amz-Credential, X-Amz-Date, X-Amz-Expires,
+ * X-Amz-SignedHeaders and X-Amz-Signature parameters next to the parameters of the request, so that the
+ * URL can be handed to a client that cannot set headers. Only the host header is signed and the body
+ * is not, so the URL can be used until it expires, with any body.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class PresignedUrl {
+
+	private final HttpMethod httpMethod;
+	private final String host;
+	private final String requestPath;
+	private final String queryString;
+	private final Instant expiration;
+
+	PresignedUrl(HttpMethod httpMethod, String host, String requestPath, String queryString, Instant expiration) {
+		this.httpMethod = httpMethod;
+		this.host = host;
+		this.requestPath = requestPath;
+		this.queryString = queryString;
+		this.expiration = expiration;
+	}
+
+	public HttpMethod getHttpMethod() {
+		return httpMethod;
+	}
+
+	/**
+	 * @return The host the URL was signed for, without the "host:" prefix.
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	public String getRequestPath() {
+		return requestPath;
+	}
+
+	/**
+	 * @return The encoded query string, including the signature parameters, without the leading '?'.
+	 */
+	public String getQueryString() {
+		return queryString;
+	}
+
+	/**
+	 * @return The time after which the signature is no longer accepted.
+	 */
+	public Instant getExpiration() {
+		return expiration;
+	}
+
+	/**
+	 * @return The complete https URL.
+	 */
+	public String getUrl() {
+		return "https://" + host + requestPath + "?" + queryString;
+	}
+
+	@Override
+	public String toString() {
+		return getUrl();
+	}
+}
@@ -0,0 +1,159 @@
+package com.mtn.dep.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class provides the ability to create a sorted query string based
+ * on the key/value pairs provided. Optionally, the query string can be
+ * URL encoded. <i>Note:</i> both key and value will be URL encoded, using
+ * the RFC 3986 encoding required by AWS Signature Version 4. The
+ * query string will be sorted by key. Since duplicate keys are supported,
+ * sorting will be done on value for such scenarios. The query string will 
+ * always be returned in sorted order.
+ * 
+ * <b><i>Note</i>: Duplicate key/value pairs are not supported. Only duplicate keys with
+ * different values are supported by this class.</b>
+ * 
+ * @author andrewhowes
+ * @since 1.8
+ * @version 1.1.0
+ */
+public class QueryStringProcessor {
+
+	// Created when the first parameter is added, so that a subclass that holds its parameters itself, such as
+	// a bound QueryTemplate, does not allocate them
+	private Map<String, String> sortedQueryParameters;
+	
+	private Map<String, String> unsortedQueryParameters;
+	
+	/**
+	 * Creates a processor from a query string as it appears in a URI, such as the result of URI.getRawQuery().
+	 * Percent-encoded characters are decoded, so that the parameters can be encoded again for the canonical
+	 * request. A '+' is kept as is. A parameter without '=' gets an empty value.
+	 * 
+	 * @param rawQuery The percent-encoded query string, without the leading '?'.
+	 * @return A processor holding the parameters of the query string, or null if the query string is null or holds
+	 * no parameters, such as a query string made up of separators only.
+	 * @throws IllegalArgumentException Thrown if the query string contains an invalid percent-encoded sequence.
+	 */
+	public static QueryStringProcessor parse(String rawQuery) {
+		if (rawQuery == null || rawQuery.isEmpty()) {
+			return null;
+		}
+		
+		QueryStringProcessor result = new QueryStringProcessor();
+		
+		for (String parameter : rawQuery.split("&")) {
+			if (parameter.isEmpty()) {
+				continue;
+			}
+			
+			int separator = parameter.indexOf('=');
+			
+			if (separator < 0) {
+				result.addQueryParameter(decode(parameter), "");
+			} else {
+				result.addQueryParameter(decode(parameter.substring(0, separator)), decode(parameter.substring(separator + 1)));
+			}
+		}
+		
+		return result.unsortedQueryParameters == null ? null : result;
+	}
+	
+	/**
+	 * Associates the specified value with the given key, to be used as part of the query string.
+	 * 
+	 * @param key key with which the value is associated.
+	 * @param value value associated to the specified name.
+	 */
+	public void addQueryParameter(String key, String value) {
+		String encodedKey = PercentEncoder.encode(key) + "=" + PercentEncoder.encode(value);
+		String unencodedValue = key + "=" + value;
+		
+		if (sortedQueryParameters == null) {
+			sortedQueryParameters = new TreeMap<>();
+			unsortedQueryParameters = new LinkedHashMap<>();
+		}
+		
+		sortedQueryParameters.put(encodedKey, unencodedValue);
+		unsortedQueryParameters.put(encodedKey, unencodedValue);
+	}
+	
+	/**
+	 * A convenience method returning a sorted query string. Sorting is done by (1) key and (2) value (if two keys are equal).
+	 * If "shouldEncode" is set to "true", the query string will be returned as StandardCharsets.UTF_8 encoded.
+	 * @return A sorted query string.
+	 */
+	public String getQueryString(boolean shouldEncode) {
+		return getQueryString(shouldEncode, sortedQueryParameters);
+	}
+	
+	/**
+	 * A convenience method returning an unsorted query string. The original order of insertion are preserved.
+	 * If "shouldEncode" is set to "true", the query string will be returned as StandardCharsets.UTF_8 encoded.
+	 * @return An unsorted query string.
+	 */
+	public String getUnsortedQueryString(boolean shouldEncode) {
+		return getQueryString(shouldEncode, unsortedQueryParameters);
+	}
+
+	private String getQueryString(boolean shouldEncode, Map<String, String> map) {
+		if (map == null) {
+			return "";
+		}
+		
+		if (shouldEncode) {
+			return computeQueryString(map.keySet());
+		} else {
+			return computeQueryString(map.values());
+		}
+	}
+	
+	private static String decode(String text) {
+		if (text.indexOf('%') < 0) {
+			return text;
+		}
+		
+		ByteArrayOutputStream result = new ByteArrayOutputStream(text.length());
+		
+		int i = 0;
+		
+		while (i < text.length()) {
+			if (text.charAt(i) != '%') {
+				int end = text.indexOf('%', i);
+				byte[] bytes = text.substring(i, end < 0 ? text.length() : end).getBytes(StandardCharsets.UTF_8);
+				
+				result.write(bytes, 0, bytes.length);
+				i = end < 0 ? text.length() : end;
+			} else if (i + 2 < text.length() && Character.digit(text.charAt(i + 1), 16) >= 0 && Character.digit(text.charAt(i + 2), 16) >= 0) {
+				result.write(Character.digit(text.charAt(i + 1), 16) << 4 | Character.digit(text.charAt(i + 2), 16));
+				i += 3;
+			} else {
+				throw new IllegalArgumentException("Invalid percent-encoded sequence in query string parameter " + text + ".");
+			}
+		}
+		
+		return new String(result.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	private String computeQueryString(Collection<String> collection) {
+		if (collection.isEmpty()) {
+			return "";
+		}
+		
+		StringBuilder result = new StringBuilder();
+		
+		for (String queryString : collection) {
+			result.append(queryString).append("&");
+		}
+
+		result.deleteCharAt(result.lastIndexOf("&"));
+		
+		return result.toString();
+	}
+}
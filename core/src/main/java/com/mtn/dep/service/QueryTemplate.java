@@ -0,0 +1,203 @@
+package com.mtn.dep.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ *
+ * A compiled query string for requests that send the same query parameters every time, with different
+ * values. The parameter names are encoded and sorted once, when the template is compiled, so that binding
+ * the values only has to encode the values themselves, without building the maps of a QueryStringProcessor.
+ * The bound query can be used wherever a QueryStringProcessor is accepted and produces exactly the same
+ * query strings.
+ *
+ * <pre>
+ * QueryTemplate template = QueryTemplate.compile("msisdn", "page", "size");
+ *
+ * signer.sign(HttpMethod.GET, "/subscription", template.bind(msisdn, "1", "50"), (String) null);
+ * </pre>
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class QueryTemplate {
+
+	private final String[] names;
+	private final String[] encodedNames;
+	private final int[] sortedOrder;
+
+	private QueryTemplate(String[] names) {
+		this.names = names;
+		this.encodedNames = new String[names.length];
+
+		Integer[] order = new Integer[names.length];
+
+		for (int i = 0; i < names.length; i++) {
+			encodedNames[i] = PercentEncoder.encode(names[i]) + "=";
+			order[i] = i;
+		}
+
+		// Matches the ordering of QueryStringProcessor, which sorts on the encoded "name=value" pairs. Since the
+		// encoded names cannot contain '=', comparing the names followed by '=' decides the order on its own.
+		Arrays.sort(order, (left, right) -> encodedNames[left].compareTo(encodedNames[right]));
+
+		this.sortedOrder = new int[names.length];
+
+		for (int i = 0; i < order.length; i++) {
+			sortedOrder[i] = order[i];
+		}
+	}
+
+	/**
+	 * @param names The names of the query parameters, in the order they should appear in the unsorted query string.
+	 * @return The compiled template.
+	 * @throws IllegalArgumentException Thrown if no names are given, or if a name is null or appears more than once.
+	 */
+	public static QueryTemplate compile(String... names) {
+		if (names == null || names.length == 0) {
+			throw new IllegalArgumentException("No parameter names provided. A query template needs at least one parameter.");
+		}
+
+		Set<String> unique = new HashSet<>();
+
+		for (String name : names) {
+			if (name == null) {
+				throw new IllegalArgumentException("The parameter names of a query template cannot be null.");
+			}
+			if (!unique.add(name)) {
+				throw new IllegalArgumentException("The parameter name " + name + " appears more than once.");
+			}
+		}
+
+		return new QueryTemplate(names.clone());
+	}
+
+	/**
+	 * @param values The values of the query parameters, in the same order as the names the template was compiled with.
+	 * @return The query with the given values.
+	 * @throws IllegalArgumentException Thrown if the number of values does not match the number of names, or if a value is null.
+	 */
+	public BoundQuery bind(String... values) {
+		if (values == null || values.length != names.length) {
+			throw new IllegalArgumentException("Expected " + names.length + " values, one for every parameter of the template.");
+		}
+
+		String[] encodedValues = new String[values.length];
+
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == null) {
+				throw new IllegalArgumentException("No value provided for parameter " + names[i] + ". The values cannot be null.");
+			}
+
+			encodedValues[i] = PercentEncoder.encode(values[i]);
+		}
+
+		return new BoundQuery(this, values.clone(), encodedValues);
+	}
+
+	/**
+	 * @return The names of the query parameters, in the order the template was compiled with.
+	 */
+	public List<String> getParameterNames() {
+		return Collections.unmodifiableList(Arrays.asList(names));
+	}
+
+
+
+	/**
+	 * A query template with its values bound. Parameters can still be added to a bound query, in which case
+	 * its parameters are copied into a QueryStringProcessor and the query strings are built from there.
+	 */
+	public static final class BoundQuery extends QueryStringProcessor {
+		private final QueryTemplate template;
+		private final String[] values;
+		private final String[] encodedValues;
+
+		private String canonicalQueryString;
+		private boolean extended;
+
+		private BoundQuery(QueryTemplate template, String[] values, String[] encodedValues) {
+			this.template = template;
+			this.values = values;
+			this.encodedValues = encodedValues;
+		}
+
+		@Override
+		public void addQueryParameter(String key, String value) {
+			if (!extended) {
+				for (int i = 0; i < values.length; i++) {
+					super.addQueryParameter(template.names[i], values[i]);
+				}
+
+				extended = true;
+				canonicalQueryString = null;
+			}
+
+			super.addQueryParameter(key, value);
+		}
+
+		@Override
+		public String getQueryString(boolean shouldEncode) {
+			if (extended) {
+				return super.getQueryString(shouldEncode);
+			}
+
+			if (!shouldEncode) {
+				return computeQueryString(template.sortedOrder, false);
+			}
+
+			if (canonicalQueryString == null) {
+				canonicalQueryString = computeQueryString(template.sortedOrder, true);
+			}
+
+			return canonicalQueryString;
+		}
+
+		@Override
+		public String getUnsortedQueryString(boolean shouldEncode) {
+			if (extended) {
+				return super.getUnsortedQueryString(shouldEncode);
+			}
+
+			return computeQueryString(null, shouldEncode);
+		}
+
+		private String computeQueryString(int[] order, boolean shouldEncode) {
+			String[] names = shouldEncode ? template.encodedNames : template.names;
+			String[] values = shouldEncode ? this.encodedValues : this.values;
+
+			StringBuilder result = new StringBuilder(estimateLength(names, values));
+
+			for (int i = 0; i < names.length; i++) {
+				int index = order != null ? order[i] : i;
+
+				if (i > 0) {
+					result.append('&');
+				}
+
+				result.append(names[index]);
+
+				if (!shouldEncode) {
+					result.append('=');
+				}
+
+				result.append(values[index]);
+			}
+
+			return result.toString();
+		}
+
+		private static int estimateLength(String[] names, String[] values) {
+			int length = names.length * 2;
+
+			for (int i = 0; i < names.length; i++) {
+				length += names[i].length() + values[i].length();
+			}
+
+			return length;
+		}
+	}
+}
@@ -0,0 +1,316 @@
+package com.mtn.dep.service;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *
+ * Detects replayed signatures within the clock skew window of the DEPSignatureVerifier, using a bounded
+ * amount of memory. Signatures are recorded in a ring of time slots, by the X-Amz-Date of their request,
+ * and a slot is cleared and reused once its time has passed out of the window. Every slot is a blocked
+ * Bloom filter held in a direct (off-heap) buffer: the bits of a signature all fall within a single
+ * 512-bit block, so a lookup touches one cache line, and concurrent inserts are serialised by a lock
+ * that is striped by block.
+ *
+ * Since signatures are HMAC outputs, and therefore uniformly distributed, their bytes are used as the
+ * hash values directly. As a Bloom filter can report false positives, a small fraction of fresh requests
+ * can be reported as replayed. The memory is sized so that the configured false positive rate holds for
+ * up to {@link #getCapacity()} requests per slot; beyond that the rate goes up, but the memory use does not.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class ReplayGuard {
+
+	public static final Duration DEFAULT_CLOCK_SKEW = DEPSignatureVerifier.DEFAULT_CLOCK_SKEW;
+
+	public static final Duration DEFAULT_SLOT_DURATION = Duration.ofSeconds(30);
+
+	public static final long DEFAULT_MAXIMUM_MEMORY = 32L * 1024 * 1024;
+
+	public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.0001;
+
+	private static final int BLOCK_BYTES = 64;
+	private static final int BLOCK_BITS = BLOCK_BYTES * 8;
+	private static final int LOCK_STRIPES = 64;
+	private static final int MINIMUM_SIGNATURE_LENGTH = 24;
+
+	private final Duration clockSkew;
+	private final long slotSeconds;
+	private final int hashCount;
+	private final int blocksPerSlot;
+	private final long capacity;
+	private final Slot[] slots;
+	private final Object[] stripes = new Object[LOCK_STRIPES];
+
+	private final LongAdder replayCount = new LongAdder();
+
+	private ReplayGuard(ReplayGuardBuilder builder) {
+		this.clockSkew = builder.clockSkew;
+		this.slotSeconds = Math.max(1, builder.slotDuration.getSeconds());
+
+		// Signed timestamps can lie up to the clock skew before or after now, plus the partial slots at both ends
+		int slotCount = (int) (2 * clockSkew.getSeconds() / slotSeconds + 2);
+		long bytesPerSlot = builder.maximumMemory / slotCount;
+
+		if (bytesPerSlot < BLOCK_BYTES) {
+			throw new IllegalArgumentException("The maximum memory is too small to hold " + slotCount + " slots of at least " + BLOCK_BYTES + " bytes.");
+		}
+
+		this.blocksPerSlot = (int) Math.min(bytesPerSlot / BLOCK_BYTES, Integer.MAX_VALUE / BLOCK_BYTES);
+		this.hashCount = (int) Math.max(1, Math.min(16, Math.round(-Math.log(builder.falsePositiveRate) / Math.log(2))));
+
+		long bits = (long) blocksPerSlot * BLOCK_BITS;
+
+		this.capacity = (long) (bits * Math.log(2) * Math.log(2) / -Math.log(builder.falsePositiveRate));
+		this.slots = new Slot[slotCount];
+
+		for (int i = 0; i < slotCount; i++) {
+			slots[i] = new Slot(blocksPerSlot * BLOCK_BYTES);
+		}
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			stripes[i] = new Object();
+		}
+	}
+
+	/**
+	 * An implementation of the builder pattern. All fields are optional.
+	 *
+	 * @return An instance of ReplayGuardBuilder.
+	 */
+	public static ReplayGuardBuilder builder() {
+		return new ReplayGuardBuilder();
+	}
+
+	/**
+	 * Records the signature of a request, unless it was recorded before.
+	 *
+	 * @param signature The signature of the request, as raw bytes. At least the first 24 bytes are used.
+	 * @param epochSecond The time of the request, as signed in its X-Amz-Date header.
+	 * @return True if the signature was not seen before, false if it was (probably) seen before, or if the
+	 * time of the request lies so far in the past that its slot has already been reused.
+	 */
+	public boolean markIfNew(byte[] signature, long epochSecond) {
+		if (signature.length < MINIMUM_SIGNATURE_LENGTH) {
+			throw new IllegalArgumentException("The signature must be at least " + MINIMUM_SIGNATURE_LENGTH + " bytes long.");
+		}
+
+		long slotNumber = Math.floorDiv(epochSecond, slotSeconds);
+		Slot slot = slots[(int) Math.floorMod(slotNumber, (long) slots.length)];
+
+		long h1 = readLong(signature, 0);
+		long h2 = readLong(signature, 8);
+		long h3 = readLong(signature, 16) | 1;
+
+		int block = (int) ((h1 >>> 1) % blocksPerSlot);
+
+		ReentrantReadWriteLock.ReadLock lock = slot.acquire(slotNumber);
+
+		if (lock == null) {
+			replayCount.increment();
+
+			return false;
+		}
+
+		try {
+			boolean isNew;
+
+			synchronized (stripes[block & (LOCK_STRIPES - 1)]) {
+				isNew = slot.testAndSet(block * BLOCK_BYTES, h2, h3, hashCount);
+			}
+
+			if (!isNew) {
+				replayCount.increment();
+			}
+
+			return isNew;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return The clock skew window the guard covers on either side of the current time.
+	 */
+	public Duration getClockSkew() {
+		return clockSkew;
+	}
+
+	/**
+	 * @return The number of requests per slot up to which the configured false positive rate holds.
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return The number of off-heap bytes held by the guard.
+	 */
+	public long getMemoryUsage() {
+		return (long) slots.length * blocksPerSlot * BLOCK_BYTES;
+	}
+
+	/**
+	 * @return The number of signatures that were reported as replayed.
+	 */
+	public long getReplayCount() {
+		return replayCount.sum();
+	}
+
+	private static long readLong(byte[] bytes, int offset) {
+		long result = 0;
+
+		for (int i = offset; i < offset + 8; i++) {
+			result = (result << 8) | (bytes[i] & 0xff);
+		}
+
+		return result;
+	}
+
+	private static final class Slot {
+		private final ByteBuffer bits;
+		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+		private long number = Long.MIN_VALUE;
+
+		private Slot(int size) {
+			this.bits = ByteBuffer.allocateDirect(size);
+		}
+
+		/**
+		 * Takes the read lock of the slot, after clearing the slot if it still holds an older time slot.
+		 *
+		 * @return The held read lock, or null if the slot already holds a newer time slot.
+		 */
+		private ReentrantReadWriteLock.ReadLock acquire(long slotNumber) {
+			ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+
+			readLock.lock();
+
+			if (number == slotNumber) {
+				return readLock;
+			}
+
+			readLock.unlock();
+			lock.writeLock().lock();
+
+			try {
+				if (number > slotNumber) {
+					return null;
+				}
+
+				if (number < slotNumber) {
+					clear();
+					number = slotNumber;
+				}
+
+				readLock.lock();
+
+				return readLock;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		/**
+		 * Sets the bits of a signature within the block at the given offset.
+		 *
+		 * @return True if at least one of the bits was not set before.
+		 */
+		private boolean testAndSet(int offset, long h2, long h3, int hashCount) {
+			boolean isNew = false;
+
+			for (int i = 0; i < hashCount; i++) {
+				int bit = (int) ((h2 + i * h3) >>> 55);
+				int index = offset + (bit >>> 6) * 8;
+				long word = bits.getLong(index);
+				long mask = 1L << (bit & 63);
+
+				if ((word & mask) == 0) {
+					bits.putLong(index, word | mask);
+					isNew = true;
+				}
+			}
+
+			return isNew;
+		}
+
+		private void clear() {
+			for (int i = 0; i < bits.capacity(); i += 8) {
+				bits.putLong(i, 0);
+			}
+		}
+	}
+
+
+
+	public static class ReplayGuardBuilder {
+		private Duration clockSkew = DEFAULT_CLOCK_SKEW;
+		private Duration slotDuration = DEFAULT_SLOT_DURATION;
+		private long maximumMemory = DEFAULT_MAXIMUM_MEMORY;
+		private double falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+
+		private ReplayGuardBuilder() {}
+
+		/**
+		 * @param clockSkew (Optional) - The clock skew of the verifier the guard is used with. Defaults to 5 minutes.
+		 * @return
+		 */
+		public ReplayGuardBuilder clockSkew(Duration clockSkew) {
+			this.clockSkew = clockSkew;
+
+			return this;
+		}
+
+		/**
+		 * @param slotDuration (Optional) - The time span covered by a single slot. Shorter slots waste less memory
+		 * on time that has passed, but cost more slots. Defaults to 30 seconds.
+		 * @return
+		 */
+		public ReplayGuardBuilder slotDuration(Duration slotDuration) {
+			this.slotDuration = slotDuration;
+
+			return this;
+		}
+
+		/**
+		 * @param maximumMemory (Optional) - The number of off-heap bytes the guard may use. Defaults to 32 MB.
+		 * @return
+		 */
+		public ReplayGuardBuilder maximumMemory(long maximumMemory) {
+			this.maximumMemory = maximumMemory;
+
+			return this;
+		}
+
+		/**
+		 * @param falsePositiveRate (Optional) - The fraction of fresh requests that may be reported as replayed,
+		 * while a slot holds no more than its capacity. Defaults to 0.0001.
+		 * @return
+		 */
+		public ReplayGuardBuilder falsePositiveRate(double falsePositiveRate) {
+			this.falsePositiveRate = falsePositiveRate;
+
+			return this;
+		}
+
+		/**
+		 * @return An instance of the ReplayGuard class.
+		 */
+		public ReplayGuard build() {
+			if (clockSkew == null || clockSkew.isNegative()) {
+				throw new IllegalArgumentException("The clock skew cannot be null or negative.");
+			}
+			if (slotDuration == null || slotDuration.getSeconds() < 1) {
+				throw new IllegalArgumentException("The slot duration must be at least 1 second.");
+			}
+			if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+				throw new IllegalArgumentException("The false positive rate must lie between 0 and 1.");
+			}
+
+			return new ReplayGuard(this);
+		}
+	}
+}
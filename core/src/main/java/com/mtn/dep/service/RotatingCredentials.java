@@ -0,0 +1,314 @@
+package com.mtn.dep.service;
+
+import java.security.InvalidKeyException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.mtn.dep.exception.DEPSigningException;
+
+/**
+ *
+ * Credentials that can be replaced while requests are being signed. The current credentials are held in
+ * an AtomicReference, so signers read them without locking and a rotation never makes them wait. Before
+ * the new credentials are swapped in, the signing key of the current date is derived for them and added
+ * to the signing key cache of every DEPSigner built with these credentials, for the region and service of
+ * that signer, so the first requests after the cut-over don't pay for the derivation.
+ *
+ * RotatingCredentials is also a SecretResolver. Given to a DEPSignatureVerifier, it accepts requests that
+ * were signed with the previous credentials until the overlap window after a rotation has passed, so that
+ * requests in flight during the rotation are not rejected.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class RotatingCredentials implements CredentialsSource, SecretResolver {
+
+	/**
+	 * The time after a rotation during which the previous credentials are still accepted.
+	 */
+	public static final Duration DEFAULT_OVERLAP = Duration.ofMinutes(5);
+
+	private final AtomicReference<State> state;
+	private final String region;
+	private final String service;
+	private final long overlapMillis;
+	private final Clock clock;
+	private final TimestampSource timestampSource;
+	private final SigningKeyCache signingKeyCache;
+
+	// The caches of the signers built with these credentials, with the region/service scopes they sign for.
+	// Held weakly, so that the private cache of a signer that is no longer used can be collected.
+	private final Map<SigningKeyCache, Set<String>> signerScopes = new WeakHashMap<>();
+
+	private RotatingCredentials(RotatingCredentialsBuilder builder) {
+		this.state = new AtomicReference<>(new State(builder.credentials, null, Long.MIN_VALUE));
+		this.region = builder.region;
+		this.service = builder.service;
+		this.overlapMillis = builder.overlap.toMillis();
+		this.clock = builder.clock;
+		this.timestampSource = TimestampSource.of(builder.clock);
+		this.signingKeyCache = builder.signingKeyCache != null ? builder.signingKeyCache : SigningKeyCache.shared();
+	}
+
+	/**
+	 * An implementation of the builder pattern. Ensure that you supply all
+	 * mandatory fields to avoid a DEPValidationException
+	 *
+	 * @return An instance of RotatingCredentialsBuilder.
+	 */
+	public static RotatingCredentialsBuilder builder() {
+		return new RotatingCredentialsBuilder();
+	}
+
+	/**
+	 * Replaces the current credentials. The signing key for the new credentials is derived before they
+	 * are swapped in. The replaced credentials are still accepted by resolveSecret and resolvePreviousSecret
+	 * until the overlap window has passed.
+	 *
+	 * Only one set of previous credentials is kept, so the credentials cannot be rotated again until the
+	 * overlap window of the last rotation has passed. Otherwise requests signed with the credentials
+	 * before the last ones would be rejected while they are still in flight.
+	 *
+	 * @param credentials The credentials to sign with from now on.
+	 * @throws IllegalStateException Thrown if the overlap window of the last rotation has not passed yet.
+	 * @throws DEPSigningException Thrown if the signing key of the new credentials could not be derived.
+	 */
+	public void rotate(DEPCredentials credentials) {
+		if (credentials == null) {
+			throw new IllegalArgumentException("No credentials provided. The credentials are mandatory and cannot be null.");
+		}
+
+		checkNoOverlap(state.get(), clock.millis());
+		deriveSigningKeys(credentials);
+
+		while (true) {
+			State current = state.get();
+			long now = clock.millis();
+
+			checkNoOverlap(current, now);
+
+			if (state.compareAndSet(current, new State(credentials, current.current, now + overlapMillis))) {
+				return;
+			}
+		}
+	}
+
+	private static void checkNoOverlap(State current, long now) {
+		if (current.acceptsPrevious(now)) {
+			throw new IllegalStateException("The credentials cannot be rotated again until the overlap window of the last rotation has passed.");
+		}
+	}
+
+	@Override
+	public DEPCredentials getCredentials() {
+		return state.get().current;
+	}
+
+	/**
+	 * @return The secret of the current credentials if the access key matches them, otherwise the secret of
+	 * the previous credentials if the access key matches those and the overlap window has not passed.
+	 */
+	@Override
+	public String resolveSecret(String accessKey) {
+		State current = state.get();
+
+		if (current.current.getAccessKey().equals(accessKey)) {
+			return current.current.getAccessSecret();
+		}
+		if (current.acceptsPrevious(clock.millis()) && current.previous.getAccessKey().equals(accessKey)) {
+			return current.previous.getAccessSecret();
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return The secret of the previous credentials if they had the same access key as the current ones
+	 * and the overlap window has not passed.
+	 */
+	@Override
+	public String resolvePreviousSecret(String accessKey) {
+		State current = state.get();
+
+		if (current.acceptsPrevious(clock.millis()) && current.previous.getAccessKey().equals(accessKey)
+				&& current.current.getAccessKey().equals(accessKey)) {
+			return current.previous.getAccessSecret();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Called by a DEPSigner built with these credentials, so that the signing keys of the next rotation are
+	 * also derived into its cache.
+	 */
+	void addSigner(SigningKeyCache signingKeyCache, String region, String service) {
+		synchronized (signerScopes) {
+			signerScopes.computeIfAbsent(signingKeyCache, cache -> new LinkedHashSet<>()).add(region + "/" + service);
+		}
+	}
+
+	/**
+	 * Derives the signing key of the current date once for every region and service, and adds it to the
+	 * caches of the signers that sign for them. Without any signers, it is added to the cache of these
+	 * credentials, for their own region and service.
+	 */
+	private void deriveSigningKeys(DEPCredentials credentials) {
+		Map<SigningKeyCache, Set<String>> targets;
+
+		synchronized (signerScopes) {
+			targets = new HashMap<>(signerScopes);
+		}
+
+		if (targets.isEmpty()) {
+			targets = Collections.singletonMap(signingKeyCache, Collections.singleton(region + "/" + service));
+		}
+
+		String accessSecret = credentials.getAccessSecret();
+		String requestDate = timestampSource.now().getRequestDate();
+		Map<String, HmacSha256Key> keys = new HashMap<>();
+
+		try {
+			for (Map.Entry<SigningKeyCache, Set<String>> target : targets.entrySet()) {
+				for (String scope : target.getValue()) {
+					String scopeRegion = scope.substring(0, scope.indexOf('/'));
+					String scopeService = scope.substring(scope.indexOf('/') + 1);
+					HmacSha256Key key = keys.get(scope);
+
+					if (key == null) {
+						key = AuthenticationService.deriveSigningKey(accessSecret, requestDate, scopeRegion, scopeService);
+						keys.put(scope, key);
+					}
+
+					target.getKey().put(accessSecret, requestDate, scopeRegion, scopeService, key);
+				}
+			}
+		} catch (InvalidKeyException e) {
+			throw new DEPSigningException("The signing key could not be derived.", e);
+		}
+	}
+
+	private static final class State {
+		private final DEPCredentials current;
+		private final DEPCredentials previous;
+		private final long previousExpiresAt;
+
+		private State(DEPCredentials current, DEPCredentials previous, long previousExpiresAt) {
+			this.current = current;
+			this.previous = previous;
+			this.previousExpiresAt = previousExpiresAt;
+		}
+
+		private boolean acceptsPrevious(long now) {
+			return previous != null && now < previousExpiresAt;
+		}
+	}
+
+
+
+	public static class RotatingCredentialsBuilder {
+		private DEPCredentials credentials;
+		private Duration overlap = DEFAULT_OVERLAP;
+		private String region = AuthenticationService.DEFAULT_REGION;
+		private String service = AuthenticationService.DEFAULT_SERVICE;
+		private Clock clock = Clock.systemUTC();
+		private SigningKeyCache signingKeyCache;
+
+		private RotatingCredentialsBuilder() {}
+
+		/**
+		 * @param credentials (Mandatory) - The credentials to sign with until the first rotation.
+		 * @return
+		 */
+		public RotatingCredentialsBuilder credentials(DEPCredentials credentials) {
+			this.credentials = credentials;
+
+			return this;
+		}
+
+		/**
+		 * @param overlap (Optional) - The time after a rotation during which the previous credentials are
+		 * still accepted by the verifier. Defaults to 5 minutes.
+		 * @return
+		 */
+		public RotatingCredentialsBuilder overlap(Duration overlap) {
+			this.overlap = overlap;
+
+			return this;
+		}
+
+		/**
+		 * @param region (Optional) - The region of the credential scope the signing keys are derived for
+		 * ahead of a rotation, as long as no DEPSigner was built with these credentials. Defaults to eu-west-1.
+		 * @return
+		 */
+		public RotatingCredentialsBuilder region(String region) {
+			this.region = region;
+
+			return this;
+		}
+
+		/**
+		 * @param service (Optional) - The service of the credential scope the signing keys are derived for
+		 * ahead of a rotation, as long as no DEPSigner was built with these credentials. Defaults to execute-api.
+		 * @return
+		 */
+		public RotatingCredentialsBuilder service(String service) {
+			this.service = service;
+
+			return this;
+		}
+
+		/**
+		 * @param clock (Optional) - The clock that times the overlap window and supplies the date of the
+		 * signing keys derived ahead of a rotation. Defaults to the system clock.
+		 * @return
+		 */
+		public RotatingCredentialsBuilder clock(Clock clock) {
+			this.clock = clock;
+
+			return this;
+		}
+
+		/**
+		 * Replaces the shared signing key cache the keys are derived into ahead of a rotation, as long as no
+		 * DEPSigner was built with these credentials.
+		 */
+		RotatingCredentialsBuilder signingKeyCache(SigningKeyCache signingKeyCache) {
+			this.signingKeyCache = signingKeyCache;
+
+			return this;
+		}
+
+		/**
+		 * @return An instance of the RotatingCredentials class.
+		 * @throws DEPValidationException Thrown if one or more of the mandatory fields are not specified, or the region or service is invalid.
+		 */
+		public RotatingCredentials build() throws DEPValidationException {
+			if (credentials == null) {
+				throw new DEPValidationException("No credentials provided. The credentials are a mandatory field and cannot be null.");
+			}
+			if (!AuthenticationService.isValidScopeComponent(region)) {
+				throw new DEPValidationException("The region cannot be null or empty, and cannot contain a '/'.");
+			}
+			if (!AuthenticationService.isValidScopeComponent(service)) {
+				throw new DEPValidationException("The service cannot be null or empty, and cannot contain a '/'.");
+			}
+			if (overlap == null || overlap.isNegative()) {
+				throw new IllegalArgumentException("The overlap cannot be null or negative.");
+			}
+			if (clock == null) {
+				throw new IllegalArgumentException("No clock provided. The clock is mandatory and cannot be null.");
+			}
+
+			return new RotatingCredentials(this);
+		}
+	}
+}
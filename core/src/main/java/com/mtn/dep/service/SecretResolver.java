@@ -0,0 +1,31 @@
+package com.mtn.dep.service;
+
+/**
+ *
+ * Looks up the access secret that belongs to an access key, for the DEPSignatureVerifier. It is called
+ * for every request that is verified, so implementations should be fast and thread-safe, for example a
+ * lookup in a ConcurrentHashMap that is refreshed in the background.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+@FunctionalInterface
+public interface SecretResolver {
+
+	/**
+	 * @param accessKey The access key of the request, as it appears in the Authorization header.
+	 * @return The access secret of the access key, or null if the access key is not known.
+	 */
+	String resolveSecret(String accessKey);
+
+	/**
+	 * Called when a signature does not match the secret returned by resolveSecret, so that requests that
+	 * were signed with the secret that was just rotated out are still accepted for a while.
+	 *
+	 * @param accessKey The access key of the request, as it appears in the Authorization header.
+	 * @return The previous access secret of the access key, or null if there is none or it is no longer accepted.
+	 */
+	default String resolvePreviousSecret(String accessKey) {
+		return null;
+	}
+}
@@ -0,0 +1,229 @@
+package com.mtn.dep.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * A bounded, thread-safe cache of derived AWS4 signing keys. A signing key only changes when the
+ * request date changes, so it is derived once per (access secret, request date, region, service) and
+ * shared by every request that falls within the same credential scope.
+ *
+ * Keys are cached for any date. Once the date of the clock moves on, the keys of the dates before yesterday
+ * expire, while those of yesterday and later are kept, so that requests signed just before midnight, or
+ * with a clock that runs slightly ahead, still find their key. When the cache is full, the
+ * keys that were used least recently are evicted first, so a request dated far in the future cannot push
+ * out the keys of today.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class SigningKeyCache {
+
+	/**
+	 * The maximum number of derived keys held by the shared cache.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+	private static final SigningKeyCache SHARED = new SigningKeyCache(DEFAULT_MAXIMUM_SIZE);
+
+	private final ConcurrentHashMap<CacheKey, Entry> keys = new ConcurrentHashMap<>();
+
+	private final int maximumSize;
+
+	private final Clock clock;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private volatile String purgedDate = "";
+
+	SigningKeyCache(int maximumSize) {
+		this(maximumSize, Clock.systemUTC());
+	}
+
+	/**
+	 * @param maximumSize The maximum number of derived keys held by the cache.
+	 * @param clock The clock that decides which dates have expired.
+	 */
+	SigningKeyCache(int maximumSize, Clock clock) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("The maximum size of the signing key cache must be at least 1.");
+		}
+
+		this.maximumSize = maximumSize;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return The cache shared by all DEPAuthentication instances.
+	 */
+	public static SigningKeyCache shared() {
+		return SHARED;
+	}
+
+	/**
+	 * @return The number of lookups that found a derived key.
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return The number of lookups that required the key to be derived.
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return The number of derived keys currently held by the cache.
+	 */
+	public int size() {
+		return keys.size();
+	}
+
+	/**
+	 * Removes all derived keys from the cache. The hit and miss counters are left untouched.
+	 */
+	public void clear() {
+		keys.clear();
+	}
+
+	/**
+	 * Returns the derived key for the given scope, or null if it still needs to be derived. The returned
+	 * key is shared and must not be modified.
+	 */
+	HmacSha256Key get(String accessSecret, String requestDate, String region, String service) {
+		Entry entry = keys.get(new CacheKey(accessSecret, requestDate, region, service));
+
+		if (entry == null) {
+			misses.increment();
+
+			return null;
+		}
+
+		hits.increment();
+		entry.lastUsed = System.nanoTime();
+
+		return entry.key;
+	}
+
+	/**
+	 * Removes the derived keys of an access secret, for all dates, regions and services.
+	 */
+	void removeAll(String accessSecret) {
+		keys.keySet().removeIf(key -> key.accessSecret.equals(accessSecret));
+	}
+
+	void put(String accessSecret, String requestDate, String region, String service, HmacSha256Key key) {
+		LocalDate today = LocalDate.now(clock);
+		String date = today.format(DateTimeFormatter.BASIC_ISO_DATE);
+
+		if (!date.equals(purgedDate)) {
+			purge(date, today.minusDays(1).format(DateTimeFormatter.BASIC_ISO_DATE));
+		}
+
+		keys.put(new CacheKey(accessSecret, requestDate, region, service), new Entry(key));
+
+		if (keys.size() > maximumSize) {
+			evict();
+		}
+	}
+
+	/**
+	 * Removes the keys of the dates before yesterday, once per day of the clock.
+	 */
+	private synchronized void purge(String date, String yesterday) {
+		if (date.equals(purgedDate)) {
+			return;
+		}
+
+		purgedDate = date;
+
+		keys.keySet().removeIf(key -> key.requestDate.compareTo(yesterday) < 0);
+	}
+
+	/**
+	 * Evicts the keys that were used least recently. Since finding them takes a pass over the cache, an
+	 * eighth of it is freed at once, so that the pass is only made once every so many derived keys.
+	 */
+	private synchronized void evict() {
+		int excess = keys.size() - maximumSize;
+
+		if (excess <= 0) {
+			return;
+		}
+
+		List<Map.Entry<CacheKey, Entry>> entries = new ArrayList<>(keys.entrySet());
+
+		entries.sort((a, b) -> Long.compare(a.getValue().lastUsed, b.getValue().lastUsed));
+
+		int count = Math.min(entries.size(), excess + maximumSize / 8);
+
+		for (int i = 0; i < count; i++) {
+			keys.remove(entries.get(i).getKey(), entries.get(i).getValue());
+		}
+	}
+
+	private static final class Entry {
+		private final HmacSha256Key key;
+		private volatile long lastUsed = System.nanoTime();
+
+		private Entry(HmacSha256Key key) {
+			this.key = key;
+		}
+	}
+
+	private static final class CacheKey {
+		private final String accessSecret;
+		private final String requestDate;
+		private final String region;
+		private final String service;
+		private final int hash;
+
+		private CacheKey(String accessSecret, String requestDate, String region, String service) {
+			this.accessSecret = accessSecret;
+			this.requestDate = requestDate;
+			this.region = region;
+			this.service = service;
+
+			int result = accessSecret.hashCode();
+			result = 31 * result + requestDate.hashCode();
+			result = 31 * result + region.hashCode();
+			result = 31 * result + service.hashCode();
+
+			this.hash = result;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CacheKey)) {
+				return false;
+			}
+
+			CacheKey other = (CacheKey) obj;
+
+			return hash == other.hash
+					&& accessSecret.equals(other.accessSecret)
+					&& requestDate.equals(other.requestDate)
+					&& region.equals(other.region)
+					&& service.equals(other.service);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.mtn.dep.service;
+
+/**
+ *
+ * Receives timings and statistics from the signing chain, for export to a metrics system. All methods
+ * default to doing nothing, so an implementation only overrides what it is interested in. The stages are
+ * only timed if {@link #isEnabled()} returns true; the {@link #NOOP} default returns false, which reduces
+ * the cost of metrics to a single check per signature.
+ *
+ * <i>Note:</i> The methods are called on the signing threads, so implementations must be thread-safe and
+ * should not block.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public interface SigningMetrics {
+
+	/**
+	 * Records nothing. Used when no metrics are configured.
+	 */
+	SigningMetrics NOOP = new SigningMetrics() {
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+	};
+
+	/**
+	 * @return True if the signing stages should be timed and recorded.
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * @param nanos The time it took to hash the payload.
+	 * @param payloadSize The (estimated) size of the payload in bytes, or -1 if it is not known.
+	 */
+	default void recordPayloadHashing(long nanos, long payloadSize) {}
+
+	/**
+	 * @param nanos The time it took to build and hash the canonical request.
+	 */
+	default void recordCanonicalization(long nanos) {}
+
+	/**
+	 * Called when the signing key was not cached and had to be derived.
+	 *
+	 * @param nanos The time it took to derive the signing key.
+	 */
+	default void recordKeyDerivation(long nanos) {}
+
+	/**
+	 * Called when the signing key did not have to be derived, because it was found in the signing key cache
+	 * or a DEPSigner still held it from an earlier request of the same date. Together with recordKeyDerivation,
+	 * it is called once for every signed request.
+	 */
+	default void recordKeyCacheHit() {}
+
+	/**
+	 * @param nanos The time it took to compute the final HMAC over the string to sign.
+	 */
+	default void recordSignature(long nanos) {}
+
+	/**
+	 * @param cause The reason a request could not be signed.
+	 */
+	default void recordFailure(Throwable cause) {}
+}
@@ -0,0 +1,167 @@
+package com.mtn.dep.service;
+
+import java.time.Instant;
+
+/**
+ *
+ * Describes a single request that is signed as part of a batch by the DEPBatchSigner.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class SigningRequest {
+
+	private final DEPSigner signer;
+	private final HttpMethod httpMethod;
+	private final String requestPath;
+	private final QueryStringProcessor query;
+	private final Payload body;
+	private final Instant timestamp;
+
+	private SigningRequest(SigningRequestBuilder builder) {
+		this.signer = builder.signer;
+		this.httpMethod = builder.httpMethod;
+		this.requestPath = builder.requestPath;
+		this.query = builder.query;
+		this.body = builder.body;
+		this.timestamp = builder.timestamp;
+	}
+
+	/**
+	 * An implementation of the builder pattern. Ensure that you supply all
+	 * mandatory fields to avoid a DEPValidationException
+	 *
+	 * @return An instance of SigningRequestBuilder.
+	 */
+	public static SigningRequestBuilder builder() {
+		return new SigningRequestBuilder();
+	}
+
+	public DEPSigner getSigner() {
+		return signer;
+	}
+
+	public HttpMethod getHttpMethod() {
+		return httpMethod;
+	}
+
+	public String getRequestPath() {
+		return requestPath;
+	}
+
+	public QueryStringProcessor getQuery() {
+		return query;
+	}
+
+	public Payload getBody() {
+		return body;
+	}
+
+	public Instant getTimestamp() {
+		return timestamp;
+	}
+
+
+
+	public static class SigningRequestBuilder {
+		private DEPSigner signer;
+		private HttpMethod httpMethod;
+		private String requestPath;
+		private QueryStringProcessor query;
+		private Payload body;
+		private Instant timestamp;
+
+		private SigningRequestBuilder() {}
+
+		/**
+		 * @param signer (Mandatory) - The signer holding the credentials the request is signed with.
+		 * @return
+		 */
+		public SigningRequestBuilder signer(DEPSigner signer) {
+			this.signer = signer;
+
+			return this;
+		}
+
+		/**
+		 * @param httpMethod (Mandatory) - The type of call could be one of POST, PUT, DELETE, GET, PATCH.
+		 * @return
+		 */
+		public SigningRequestBuilder httpMethod(HttpMethod httpMethod) {
+			this.httpMethod = httpMethod;
+
+			return this;
+		}
+
+		/**
+		 * @param requestPath (Mandatory) - The request path of the endpoint being called.
+		 * @return
+		 */
+		public SigningRequestBuilder requestPath(String requestPath) {
+			this.requestPath = requestPath;
+
+			return this;
+		}
+
+		/**
+		 * @param query (Optional) - The query parameters of the request.
+		 * @return
+		 */
+		public SigningRequestBuilder query(QueryStringProcessor query) {
+			this.query = query;
+
+			return this;
+		}
+
+		/**
+		 * @param body (Optional) - The JSON body of the request.
+		 * @return
+		 */
+		public SigningRequestBuilder body(String body) {
+			this.body = body != null ? Payload.of(body) : null;
+
+			return this;
+		}
+
+		/**
+		 * @param body (Optional) - The body of the request.
+		 * @return
+		 */
+		public SigningRequestBuilder body(Payload body) {
+			this.body = body;
+
+			return this;
+		}
+
+		/**
+		 * @param timestamp (Mandatory) - The time at which the request is made.
+		 * @return
+		 */
+		public SigningRequestBuilder timestamp(Instant timestamp) {
+			this.timestamp = timestamp;
+
+			return this;
+		}
+
+		/**
+		 * @return An instance of the SigningRequest class.
+		 * @throws DEPValidationException Thrown if one or more of the mandatory fields are not specified.
+		 */
+		public SigningRequest build() throws DEPValidationException {
+			if (signer == null) {
+				throw new DEPValidationException("No signer provided. The signer is a mandatory field and cannot be null.");
+			}
+			if (httpMethod == null) {
+				throw new DEPValidationException("No httpMethod provided. The httpMethod is a mandatory field and cannot be null.");
+			}
+			if (requestPath == null) {
+				throw new DEPValidationException("No requestPath provided. The requestPath is a mandatory field and cannot be null.");
+			}
+			if (timestamp == null) {
+				throw new DEPValidationException("No timestamp provided. The timestamp is a mandatory field and cannot be null.");
+			}
+
+			return new SigningRequest(this);
+		}
+	}
+}
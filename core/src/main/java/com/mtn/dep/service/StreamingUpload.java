@@ -0,0 +1,240 @@
+package com.mtn.dep.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+/**
+ *
+ * A request of which the body is signed in chunks while it is sent, in the way of the
+ * STREAMING-AWS4-HMAC-SHA256-PAYLOAD payload of AWS. The headers carry the seed signature, which is
+ * created before the body is known, and the body is written through a wrapper that encodes it in the
+ * aws-chunked format and signs every chunk as soon as it is full. The body is never held in memory as
+ * a whole, and the first chunk goes out while the rest is still being read.
+ *
+ * Besides the Authorization, X-Amz-Date and x-amz-content-sha256 headers, the request should carry
+ * the Content-Encoding header with the value of CONTENT_ENCODING, the x-amz-decoded-content-length
+ * header with the decoded content length and, if it is known, the Content-Length header with the
+ * content length. If the decoded content length is known, the x-amz-decoded-content-length header is
+ * signed by the seed signature, so it cannot be changed without breaking it. The Content-Encoding header
+ * is not signed.
+ *
+ * <i>Note:</i> The chunk signatures are chained, so the body of an upload can only be written once.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class StreamingUpload {
+
+	/**
+	 * The value of the x-amz-content-sha256 header of a streaming upload.
+	 */
+	public static final String STREAMING_PAYLOAD = ChunkEncoder.STREAMING_PAYLOAD;
+
+	/**
+	 * The value of the Content-Encoding header of a streaming upload.
+	 */
+	public static final String CONTENT_ENCODING = "aws-chunked";
+
+	/**
+	 * The number of bytes of the body that are signed together.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * The smallest chunk size that is accepted. Only the last chunk of a body may be smaller.
+	 */
+	public static final int MINIMUM_CHUNK_SIZE = 8 * 1024;
+
+	private final AuthenticationHeaders headers;
+	private final long decodedContentLength;
+	private final int chunkSize;
+	private final ChunkEncoder encoder;
+	private final AtomicBoolean wrapped = new AtomicBoolean();
+
+	StreamingUpload(AuthenticationHeaders headers, long decodedContentLength, int chunkSize, ChunkEncoder encoder) {
+		this.headers = headers;
+		this.decodedContentLength = decodedContentLength;
+		this.chunkSize = chunkSize;
+		this.encoder = encoder;
+	}
+
+	/**
+	 * @return The Authorization, X-Amz-Date and x-amz-content-sha256 headers, signed with the seed signature.
+	 */
+	public AuthenticationHeaders getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return The size of the body before it is encoded, to be sent as the x-amz-decoded-content-length
+	 * header, or -1 if it was not given.
+	 */
+	public long getDecodedContentLength() {
+		return decodedContentLength;
+	}
+
+	/**
+	 * @return The size of the encoded body, to be sent as the Content-Length header, or -1 if the decoded
+	 * content length was not given.
+	 */
+	public long getContentLength() {
+		return decodedContentLength >= 0 ? ChunkEncoder.getEncodedLength(decodedContentLength, chunkSize) : -1;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Returns a stream that encodes and signs the body written to it. Closing the stream writes the
+	 * final chunk and closes the given stream.
+	 *
+	 * @param out The stream of the request body.
+	 * @return The stream to write the body to.
+	 * @throws IllegalStateException Thrown if the body of this upload was already wrapped.
+	 */
+	public OutputStream wrap(OutputStream out) {
+		if (out == null) {
+			throw new IllegalArgumentException("No stream provided. The stream is mandatory and cannot be null.");
+		}
+
+		checkNotWrapped();
+
+		return new ChunkedOutputStream(out, encoder);
+	}
+
+	/**
+	 * Returns a channel that encodes and signs the body written to it. Closing the channel writes the
+	 * final chunk and closes the given channel.
+	 *
+	 * @param channel The blocking channel of the request body.
+	 * @return The channel to write the body to.
+	 * @throws IllegalStateException Thrown if the body of this upload was already wrapped.
+	 */
+	public WritableByteChannel wrap(WritableByteChannel channel) {
+		if (channel == null) {
+			throw new IllegalArgumentException("No channel provided. The channel is mandatory and cannot be null.");
+		}
+
+		checkNotWrapped();
+
+		return new ChunkedByteChannel(channel, encoder);
+	}
+
+	private void checkNotWrapped() {
+		if (!wrapped.compareAndSet(false, true)) {
+			throw new IllegalStateException("The body of a streaming upload can only be written once.");
+		}
+	}
+
+	private static final class ChunkedOutputStream extends OutputStream {
+		private final OutputStream out;
+		private final ChunkEncoder encoder;
+		private final ChunkEncoder.Sink sink;
+		private boolean closed;
+
+		private ChunkedOutputStream(OutputStream out, ChunkEncoder encoder) {
+			this.out = out;
+			this.encoder = encoder;
+			this.sink = out::write;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (off < 0 || len < 0 || len > b.length - off) {
+				throw new IndexOutOfBoundsException();
+			}
+
+			encoder.write(b, off, len, sink);
+		}
+
+		/**
+		 * Flushes the given stream. Data that does not fill a chunk yet is held back, since only the last
+		 * chunk may be smaller than the chunk size.
+		 */
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+
+			closed = true;
+
+			try {
+				encoder.finish(sink);
+			} finally {
+				out.close();
+			}
+		}
+	}
+
+	private static final class ChunkedByteChannel implements WritableByteChannel {
+		private final WritableByteChannel channel;
+		private final ChunkEncoder encoder;
+		private final ChunkEncoder.Sink sink;
+		private boolean closed;
+
+		private ChunkedByteChannel(WritableByteChannel channel, ChunkEncoder encoder) {
+			this.channel = channel;
+			this.encoder = encoder;
+			this.sink = this::writeFully;
+		}
+
+		@Override
+		public int write(ByteBuffer source) throws IOException {
+			if (closed) {
+				throw new ClosedChannelException();
+			}
+
+			int count = source.remaining();
+
+			encoder.write(source, sink);
+
+			return count;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return !closed;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+
+			closed = true;
+
+			try {
+				encoder.finish(sink);
+			} finally {
+				channel.close();
+			}
+		}
+
+		private void writeFully(byte[] bytes, int offset, int length) throws IOException {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package com.mtn.dep.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ *
+ * Supplies the formatted X-Amz-Date, the yyyyMMdd request date and the credential scope for a point
+ * in time. The last result is kept, so that all requests signed within the same second share it; the
+ * time of day is only formatted again when the second changes, and the date and credential scope only
+ * when the day changes. The clock is pluggable, which allows tests to sign with a fixed clock.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class TimestampSource {
+
+	private static final TimestampSource SYSTEM = new TimestampSource(Clock.systemUTC());
+
+	private static final long SECONDS_PER_DAY = 86400;
+
+	private final Clock clock;
+
+	private volatile Timestamp last;
+
+	private TimestampSource(Clock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * @return The timestamp source backed by the system clock, shared by all signers that are not given a clock.
+	 */
+	public static TimestampSource system() {
+		return SYSTEM;
+	}
+
+	/**
+	 * @param clock The clock that supplies the current time.
+	 * @return A timestamp source backed by the given clock.
+	 */
+	public static TimestampSource of(Clock clock) {
+		if (clock == null) {
+			throw new IllegalArgumentException("No clock provided. The clock is mandatory and cannot be null.");
+		}
+
+		return new TimestampSource(clock);
+	}
+
+	/**
+	 * @return The timestamp for the current time of the clock.
+	 */
+	public Timestamp now() {
+		return at(clock.instant());
+	}
+
+	/**
+	 * @param instant The point in time to return the timestamp for. Sub-second precision is ignored.
+	 * @return The timestamp for the given point in time.
+	 */
+	public Timestamp at(Instant instant) {
+		long epochSecond = instant.getEpochSecond();
+		Timestamp current = last;
+
+		if (current != null && current.epochSecond == epochSecond) {
+			return current;
+		}
+
+		Timestamp result = new Timestamp(epochSecond, current);
+
+		last = result;
+
+		return result;
+	}
+
+
+
+	/**
+	 * The formatted date and time values of a single second, as they appear in the
+	 * X-Amz-Date header and the credential scope.
+	 */
+	public static final class Timestamp {
+		private final long epochSecond;
+		private final long epochDay;
+		private final String requestDate;
+		private final String credentialScope;
+		private final String amzDate;
+
+		private Timestamp(long epochSecond, Timestamp previous) {
+			this.epochSecond = epochSecond;
+			this.epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+
+			if (previous != null && previous.epochDay == epochDay) {
+				this.requestDate = previous.requestDate;
+				this.credentialScope = previous.credentialScope;
+			} else {
+				this.requestDate = LocalDate.ofEpochDay(epochDay).format(DateTimeFormatter.BASIC_ISO_DATE);
+				this.credentialScope = AuthenticationService.createCredentialScope(requestDate);
+			}
+
+			this.amzDate = formatAmzDate(requestDate, (int) Math.floorMod(epochSecond, SECONDS_PER_DAY));
+		}
+
+		/**
+		 * @return The X-Amz-Date header value, formatted as yyyyMMdd'T'HHmmss'Z'.
+		 */
+		public String getAmzDate() {
+			return amzDate;
+		}
+
+		/**
+		 * @return The request date, formatted as yyyyMMdd.
+		 */
+		public String getRequestDate() {
+			return requestDate;
+		}
+
+		/**
+		 * @return The credential scope for the request date.
+		 */
+		public String getCredentialScope() {
+			return credentialScope;
+		}
+
+		/**
+		 * @return The number of seconds since the epoch.
+		 */
+		public long getEpochSecond() {
+			return epochSecond;
+		}
+
+		private static String formatAmzDate(String requestDate, int secondOfDay) {
+			int hours = secondOfDay / 3600;
+			int minutes = (secondOfDay / 60) % 60;
+			int seconds = secondOfDay % 60;
+
+			char[] result = new char[requestDate.length() + 8];
+
+			requestDate.getChars(0, requestDate.length(), result, 0);
+
+			int i = requestDate.length();
+
+			result[i++] = 'T';
+			result[i++] = (char) ('0' + hours / 10);
+			result[i++] = (char) ('0' + hours % 10);
+			result[i++] = (char) ('0' + minutes / 10);
+			result[i++] = (char) ('0' + minutes % 10);
+			result[i++] = (char) ('0' + seconds / 10);
+			result[i++] = (char) ('0' + seconds % 10);
+			result[i] = 'Z';
+
+			return new String(result);
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package com.mtn.dep.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ *
+ * Describes an incoming request of which the signature is verified by the DEPSignatureVerifier. The
+ * headers are taken as they were received; a missing header results in a MALFORMED verification result
+ * rather than an exception.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class VerificationRequest {
+
+	private final HttpMethod httpMethod;
+	private final String requestPath;
+	private final QueryStringProcessor query;
+	private final String hostName;
+	private final String authorization;
+	private final String xAmzDate;
+	private final String xAmzContentSha256;
+	private final Payload body;
+
+	private VerificationRequest(VerificationRequestBuilder builder) {
+		this.httpMethod = builder.httpMethod;
+		this.requestPath = builder.requestPath;
+		this.query = builder.query;
+		this.hostName = builder.hostName;
+		this.authorization = builder.authorization;
+		this.xAmzDate = builder.xAmzDate;
+		this.xAmzContentSha256 = builder.xAmzContentSha256;
+		this.body = builder.body;
+	}
+
+	/**
+	 * An implementation of the builder pattern. Ensure that you supply all
+	 * mandatory fields to avoid a DEPValidationException
+	 *
+	 * @return An instance of VerificationRequestBuilder.
+	 */
+	public static VerificationRequestBuilder builder() {
+		return new VerificationRequestBuilder();
+	}
+
+	public HttpMethod getHttpMethod() {
+		return httpMethod;
+	}
+
+	public String getRequestPath() {
+		return requestPath;
+	}
+
+	public QueryStringProcessor getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return The host header line, prefixed with "host:".
+	 */
+	public String getHostName() {
+		return hostName;
+	}
+
+	public String getAuthorization() {
+		return authorization;
+	}
+
+	public String getXAmzDate() {
+		return xAmzDate;
+	}
+
+	public String getXAmzContentSha256() {
+		return xAmzContentSha256;
+	}
+
+	public Payload getBody() {
+		return body;
+	}
+
+
+
+	public static class VerificationRequestBuilder {
+		private HttpMethod httpMethod;
+		private String requestPath;
+		private QueryStringProcessor query;
+		private String hostName;
+		private String authorization;
+		private String xAmzDate;
+		private String xAmzContentSha256;
+		private Payload body;
+
+		private VerificationRequestBuilder() {}
+
+		/**
+		 * @param httpMethod (Mandatory) - The http method of the request.
+		 * @return
+		 */
+		public VerificationRequestBuilder httpMethod(HttpMethod httpMethod) {
+			this.httpMethod = httpMethod;
+
+			return this;
+		}
+
+		/**
+		 * @param requestPath (Mandatory) - The request path, as it was received.
+		 * @return
+		 */
+		public VerificationRequestBuilder requestPath(String requestPath) {
+			this.requestPath = requestPath;
+
+			return this;
+		}
+
+		/**
+		 * @param query (Optional) - The query parameters of the request.
+		 * @return
+		 */
+		public VerificationRequestBuilder query(QueryStringProcessor query) {
+			this.query = query;
+
+			return this;
+		}
+
+		/**
+		 * @param rawQuery (Optional) - The percent-encoded query string of the request, without the leading '?'.
+		 * @return
+		 */
+		public VerificationRequestBuilder rawQuery(String rawQuery) {
+			this.query = QueryStringProcessor.parse(rawQuery);
+
+			return this;
+		}
+
+		/**
+		 * @param hostName (Mandatory) - The value of the Host header.
+		 * @return
+		 */
+		public VerificationRequestBuilder hostName(String hostName) {
+			if (hostName != null && !hostName.isEmpty() && !hostName.startsWith("host:")) {
+				hostName = "host:" + hostName;
+			}
+
+			this.hostName = hostName;
+
+			return this;
+		}
+
+		/**
+		 * @param authorization (Optional) - The value of the Authorization header.
+		 * @return
+		 */
+		public VerificationRequestBuilder authorization(String authorization) {
+			this.authorization = authorization;
+
+			return this;
+		}
+
+		/**
+		 * @param xAmzDate (Optional) - The value of the X-Amz-Date header.
+		 * @return
+		 */
+		public VerificationRequestBuilder xAmzDate(String xAmzDate) {
+			this.xAmzDate = xAmzDate;
+
+			return this;
+		}
+
+		/**
+		 * @param xAmzContentSha256 (Optional) - The value of the X-Amz-Content-Sha256 header.
+		 * @return
+		 */
+		public VerificationRequestBuilder xAmzContentSha256(String xAmzContentSha256) {
+			this.xAmzContentSha256 = xAmzContentSha256;
+
+			return this;
+		}
+
+		/**
+		 * @param body (Optional) - The JSON body of the request.
+		 * @return
+		 */
+		public VerificationRequestBuilder body(String body) {
+			this.body = body != null ? Payload.of(body) : null;
+
+			return this;
+		}
+
+		/**
+		 * @param body (Optional) - A buffer containing the body of the request. It is hashed in place.
+		 * @return
+		 */
+		public VerificationRequestBuilder body(ByteBuffer body) {
+			this.body = body != null ? Payload.of(body) : null;
+
+			return this;
+		}
+
+		/**
+		 * @param body (Optional) - The body of the request as a Payload.
+		 * @return
+		 */
+		public VerificationRequestBuilder body(Payload body) {
+			this.body = body;
+
+			return this;
+		}
+
+		/**
+		 * @return An instance of the VerificationRequest class.
+		 * @throws DEPValidationException Thrown if one or more of the mandatory fields are not specified.
+		 */
+		public VerificationRequest build() throws DEPValidationException {
+			if (httpMethod == null) {
+				throw new DEPValidationException("No httpMethod provided. The httpMethod is a mandatory field and cannot be null.");
+			}
+			if (requestPath == null) {
+				throw new DEPValidationException("No requestPath provided. The requestPath is a mandatory field and cannot be null.");
+			}
+			if (hostName == null || hostName.isEmpty()) {
+				throw new DEPValidationException("No hostName provided. The hostName is a mandatory field and cannot be null.");
+			}
+
+			return new VerificationRequest(this);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.mtn.dep.service;
+
+/**
+ *
+ * The outcome of verifying the signature of a request with the DEPSignatureVerifier.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public enum VerificationResult {
+
+	/**
+	 * The signature matches the request.
+	 */
+	VALID,
+
+	/**
+	 * The Authorization, X-Amz-Date or X-Amz-Content-Sha256 header is missing or cannot be parsed.
+	 */
+	MALFORMED,
+
+	/**
+	 * The access key in the Authorization header is not known to the SecretResolver.
+	 */
+	UNKNOWN_ACCESS_KEY,
+
+	/**
+	 * The X-Amz-Date header lies outside of the allowed clock skew.
+	 */
+	EXPIRED,
+
+	/**
+	 * The credential scope does not match the date of the request, or the region and service of the DEP platform.
+	 */
+	INVALID_SCOPE,
+
+	/**
+	 * The X-Amz-Content-Sha256 header does not match the hash of the body, which must be lowercase hex.
+	 */
+	PAYLOAD_MISMATCH,
+
+	/**
+	 * The X-Amz-Content-Sha256 header is UNSIGNED-PAYLOAD, which the verifier does not allow.
+	 */
+	UNSIGNED_PAYLOAD,
+
+	/**
+	 * The signature does not match the request.
+	 */
+	SIGNATURE_MISMATCH,
+
+	/**
+	 * The signature is valid, but the ReplayGuard of the verifier has seen it before.
+	 */
+	REPLAYED;
+
+	/**
+	 * @return True if the request may be accepted.
+	 */
+	public boolean isValid() {
+		return this == VALID;
+	}
+}
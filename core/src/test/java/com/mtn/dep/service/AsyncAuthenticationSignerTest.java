@@ -0,0 +1,160 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.mtn.dep.Authentication;
+import com.mtn.dep.AuthenticationHeaders;
+
+public class AsyncAuthenticationSignerTest {
+
+	private final String body = "{\"one\":\"one\"}";
+	private final String result = "AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=e28d5a3de0973c0cd7cd5ce86a87157897f118ea85791f540819d0201771cd3b";
+	private final ZonedDateTime timestamp = ZonedDateTime.of(LocalDate.of(2018, 10, 22), LocalTime.of(12, 59, 51, 428), ZoneId.of("UTC"));
+
+	@Test
+	public void testThatSmallBodiesAreSignedInline() throws Exception {
+		try (AsyncAuthenticationSigner signer = AsyncAuthenticationSigner.builder().build()) {
+			CompletableFuture<AuthenticationHeaders> headers = signer.createAuthenticationHeaders(buildPOST(Payload.of(body)));
+
+			assertTrue(headers.isDone());
+			assertEquals(result, headers.get().getAuthorizationString());
+			assertEquals(1, signer.getInlineCount());
+			assertEquals(0, signer.getOffloadedCount());
+		}
+	}
+
+	@Test
+	public void testThatBodiesOfUnknownSizeAreOffloaded() throws Exception {
+		try (AsyncAuthenticationSigner signer = AsyncAuthenticationSigner.builder().build()) {
+			Payload payload = Payload.of(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+			assertEquals(result, signer.createAuthenticationHeaders(buildPOST(payload)).get().getAuthorizationString());
+			assertEquals(0, signer.getInlineCount());
+			assertEquals(1, signer.getOffloadedCount());
+		}
+	}
+
+	@Test
+	public void testThatRequestsAreRejectedWhenTheQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Authentication blocking = new BlockingAuthentication(release);
+
+		try (AsyncAuthenticationSigner signer = AsyncAuthenticationSigner.builder().workerThreads(1).queueCapacity(1).build()) {
+			CompletableFuture<AuthenticationHeaders> running = signer.createAuthenticationHeaders(blocking);
+
+			while (signer.getQueueDepth() > 0 || !blocking.getJsonBody().equals("started")) {
+				Thread.sleep(1);
+			}
+
+			CompletableFuture<AuthenticationHeaders> queued = signer.createAuthenticationHeaders(blocking);
+			CompletableFuture<AuthenticationHeaders> rejected = signer.createAuthenticationHeaders(blocking);
+
+			assertEquals(1, signer.getQueueDepth());
+
+			try {
+				rejected.get();
+
+				fail("No exception were thrown when the queue was full.");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof RejectedExecutionException);
+			}
+
+			release.countDown();
+
+			running.get();
+			queued.get();
+
+			assertEquals(1, signer.getRejectedCount());
+			assertEquals(2, signer.getOffloadedCount());
+		}
+	}
+
+	@Test
+	public void testThatAnErrorOnAWorkerFailsTheFuture() throws Exception {
+		Authentication failing = new Authentication() {
+			@Override
+			public AuthenticationHeaders createAuthenticationHeaders() {
+				throw new LinkageError("The signing classes could not be linked.");
+			}
+
+			@Override
+			public String getJsonBody() {
+				return null;
+			}
+
+			@Override
+			public String getRequestQueryString() {
+				return null;
+			}
+		};
+
+		try (AsyncAuthenticationSigner signer = AsyncAuthenticationSigner.builder().inlineThreshold(0).build()) {
+			signer.createAuthenticationHeaders(failing).get(5, TimeUnit.SECONDS);
+
+			fail("No exception was thrown for an error on a worker thread.");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof LinkageError);
+		}
+	}
+
+	private Authentication buildPOST(Payload payload) throws DEPValidationException {
+		return DEPAuthentication
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.httpMethod(HttpMethod.POST)
+				.requestPath("/subscription")
+				.timestamp(timestamp)
+				.body(payload)
+				.hostName("api.dep.mtn.co.za")
+			.build();
+	}
+
+	private static final class BlockingAuthentication implements Authentication {
+		private final CountDownLatch release;
+		private volatile String state = "waiting";
+
+		private BlockingAuthentication(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public AuthenticationHeaders createAuthenticationHeaders() {
+			state = "started";
+
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			return null;
+		}
+
+		@Override
+		public String getJsonBody() {
+			return state;
+		}
+
+		@Override
+		public String getRequestQueryString() {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+
+import org.junit.Test;
+
+public class CanonicalRequestWriterTest {
+
+	@Test
+	public void testThatAsciiIsWrittenAsIs() throws Exception {
+		assertDigestMatchesGetBytes("GET\n/subscription\na=1&b=2\nhost:api.dep.mtn.co.za\n");
+	}
+
+	@Test
+	public void testThatNonAsciiIsWrittenAsUtf8() throws Exception {
+		assertDigestMatchesGetBytes("/abonnement/café/€/😀");
+	}
+
+	@Test
+	public void testThatUnpairedSurrogatesAreReplaced() throws Exception {
+		assertDigestMatchesGetBytes("a\ud83db\ude00c");
+	}
+
+	@Test
+	public void testThatTextLongerThanTheBufferIsWritten() throws Exception {
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < 300; i++) {
+			builder.append("key").append(i).append("=é&");
+		}
+
+		assertDigestMatchesGetBytes(builder.toString());
+	}
+
+	@Test
+	public void testThatSigningAllocatesLittleMemory() throws InvalidKeyException {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+		assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+
+		com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+
+		assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported() && allocationMXBean.isThreadAllocatedMemoryEnabled());
+
+		HmacSha256Key signingKey = AuthenticationService.lookupSigningKey(SigningKeyCache.shared(), "TESTSECRET", "20300101",
+				AuthenticationService.DEFAULT_REGION, AuthenticationService.DEFAULT_SERVICE, SigningMetrics.NOOP);
+		int iterations = 20000;
+
+		// A new request is built for every signature, as DEPSigner.sign does, so that the payload is hashed every
+		// time. The signing key and credential scope are taken from the signing scope, as they are by DEPSigner.
+		for (int i = 0; i < iterations; i++) {
+			sign(signingKey);
+		}
+
+		long threadId = Thread.currentThread().getId();
+		long before = allocationMXBean.getThreadAllocatedBytes(threadId);
+
+		for (int i = 0; i < iterations; i++) {
+			sign(signingKey);
+		}
+
+		long allocatedPerSignature = (allocationMXBean.getThreadAllocatedBytes(threadId) - before) / iterations;
+
+		assertTrue("Signing allocated " + allocatedPerSignature + " bytes per signature.", allocatedPerSignature < 2048);
+	}
+
+	private String sign(HmacSha256Key signingKey) {
+		return AuthenticationService
+			.builder()
+				.httpMethod(HttpMethod.POST.name())
+				.requestPath("/subscription")
+				.queryString("a=1&b=2")
+				.body(Payload.of("{\"one\":\"one\"}"))
+				.accessSecret("TESTSECRET")
+				.requestDate("20300101")
+				.timestamp("20300101T100000Z")
+				.credentialScope("20300101/eu-west-1/execute-api/aws4_request")
+				.hostName("host:api.dep.mtn.co.za")
+				.signingKey(signingKey)
+			.build()
+			.generateSignature();
+	}
+
+	private void assertDigestMatchesGetBytes(String text) throws Exception {
+		CryptoContext context = CryptoContext.get();
+		byte[] result = new byte[32];
+
+		context.writer().begin(context.digest()).append(text).finish(result);
+
+		assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)), result);
+	}
+}
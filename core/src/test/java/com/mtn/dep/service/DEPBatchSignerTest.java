@@ -0,0 +1,66 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class DEPBatchSignerTest {
+
+	private final Instant timestamp = Instant.parse("2018-10-22T23:00:00Z");
+
+	@Test
+	public void testThatHeadersAreReturnedInTheOrderOfTheRequests() throws DEPValidationException {
+		DEPSigner first = buildSigner("FIRSTKEY", "FIRSTSECRET");
+		DEPSigner second = buildSigner("SECONDKEY", "SECONDSECRET");
+		List<SigningRequest> requests = new ArrayList<>();
+
+		for (int i = 0; i < 1000; i++) {
+			requests.add(SigningRequest
+				.builder()
+					.signer(i % 3 == 0 ? first : second)
+					.httpMethod(HttpMethod.POST)
+					.requestPath("/subscription/" + i)
+					.body("{\"id\":" + i + "}")
+					.timestamp(timestamp.plus(Duration.ofMinutes(i % 120)))
+				.build());
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			BatchSigningResult result = new DEPBatchSigner(pool, 16).signAll(requests.stream());
+
+			assertEquals(requests.size(), result.getHeaders().size());
+			assertEquals(4, result.getCredentialScopeCount());
+
+			for (int i = 0; i < requests.size(); i++) {
+				SigningRequest request = requests.get(i);
+
+				String expected = request.getSigner().sign(request.getHttpMethod(), request.getRequestPath(), null, "{\"id\":" + i + "}", request.getTimestamp())
+						.getAuthorizationString();
+
+				assertEquals(expected, result.getHeaders().get(i).getAuthorizationString());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testThatAnEmptyBatchCanBeSigned() {
+		BatchSigningResult result = new DEPBatchSigner().signAll(new ArrayList<>());
+
+		assertEquals(0, result.getHeaders().size());
+		assertEquals(0, result.getCredentialScopeCount());
+	}
+
+	private DEPSigner buildSigner(String accessKey, String accessSecret) throws DEPValidationException {
+		return DEPSigner.builder().accessKey(accessKey).accessSecret(accessSecret).hostName("api.dep.mtn.co.za").build();
+	}
+}
@@ -0,0 +1,206 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.mtn.dep.AuthenticationHeaders;
+import com.mtn.dep.exception.DEPSigningException;
+
+public class DEPKeyringTest {
+
+	private final Instant timestamp = Instant.parse("2018-10-22T12:59:51Z");
+
+	private final Map<String, DEPCredentials> credentials = new HashMap<>();
+
+	private final AtomicInteger resolutions = new AtomicInteger();
+
+	public DEPKeyringTest() {
+		credentials.put("tenant-a", DEPCredentials.of("TESTKEY", "TESTSECRET"));
+		credentials.put("tenant-b", DEPCredentials.of("OTHERKEY", "OTHERSECRET"));
+		credentials.put("tenant-c", DEPCredentials.of("THIRDKEY", "THIRDSECRET"));
+	}
+
+	@Test
+	public void testThatRequestsAreSignedWithTheCredentialsOfTheTenant() throws DEPValidationException {
+		AuthenticationHeaders headers = buildKeyring(10).sign("tenant-a", HttpMethod.DELETE, "/subscription/50273440", null, null);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca", headers.getAuthorizationString());
+	}
+
+	@Test
+	public void testThatCredentialsAreResolvedOncePerTenant() throws DEPValidationException {
+		DEPKeyring keyring = buildKeyring(10);
+
+		DEPSigner signer = keyring.signer("tenant-a");
+
+		assertSame(signer, keyring.signer("tenant-a"));
+		assertEquals("OTHERKEY", keyring.signer("tenant-b").getAccessKey());
+		assertEquals(2, resolutions.get());
+	}
+
+	@Test
+	public void testThatUnknownTenantsAreRejected() throws DEPValidationException {
+		try {
+			buildKeyring(10).signer("tenant-x");
+
+			fail("No exception was thrown for an unknown tenant.");
+		} catch (DEPSigningException e) {
+			assertEquals("Unable to sign request: No credentials found for tenant tenant-x.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testThatTheIdlestTenantIsEvicted() throws Exception {
+		DEPKeyring keyring = buildKeyring(2);
+
+		DEPSigner signerA = keyring.signer("tenant-a");
+		Thread.sleep(5);
+		keyring.signer("tenant-b");
+		Thread.sleep(5);
+		keyring.signer("tenant-a");
+		Thread.sleep(5);
+		keyring.signer("tenant-c");
+
+		assertEquals(2, keyring.getTenantCount());
+		assertEquals(1, keyring.getEvictionCount());
+		assertSame(signerA, keyring.signer("tenant-a"));
+		assertEquals(3, resolutions.get());
+
+		keyring.signer("tenant-b");
+
+		assertEquals(4, resolutions.get());
+	}
+
+	@Test
+	public void testThatASlowResolverDoesNotBlockOtherTenants() throws Exception {
+		// Both IDs have the same hash code, so they share a bin of the tenant map
+		credentials.put("Aa", DEPCredentials.of("TESTKEY", "TESTSECRET"));
+		credentials.put("BB", DEPCredentials.of("OTHERKEY", "OTHERSECRET"));
+
+		CountDownLatch signedOther = new CountDownLatch(1);
+		DEPKeyring keyring = DEPKeyring
+			.builder()
+				.credentialsResolver(tenantId -> {
+					if ("Aa".equals(tenantId)) {
+						try {
+							signedOther.await(5, TimeUnit.SECONDS);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+
+					return credentials.get(tenantId);
+				})
+				.hostName("api.dep.mtn.co.za")
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+			.build();
+
+		Thread slow = new Thread(() -> keyring.signer("Aa"));
+
+		slow.start();
+		Thread.sleep(50);
+
+		long start = System.nanoTime();
+
+		keyring.signer("BB");
+		signedOther.countDown();
+		slow.join();
+
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+		assertEquals(2, keyring.getTenantCount());
+	}
+
+	@Test
+	public void testThatAnInvalidatedTenantIsResolvedAgain() throws DEPValidationException {
+		DEPKeyring keyring = buildKeyring(10);
+		DEPSigner signer = keyring.signer("tenant-a");
+
+		keyring.invalidate("tenant-a");
+
+		assertNotSame(signer, keyring.signer("tenant-a"));
+		assertEquals(2, resolutions.get());
+	}
+
+	@Test
+	public void testThatSigningKeysAreKeptWhileAnotherTenantSharesTheSecret() throws DEPValidationException {
+		credentials.put("tenant-d", DEPCredentials.of("FOURTHKEY", "TESTSECRET"));
+
+		DEPKeyring keyring = DEPKeyring
+			.builder()
+				.credentialsResolver(credentials::get)
+				.hostName("api.dep.mtn.co.za")
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+				.keyCacheStripes(1)
+			.build();
+
+		keyring.sign("tenant-a", HttpMethod.GET, "/subscription", null, null);
+		keyring.sign("tenant-d", HttpMethod.GET, "/subscription", null, null);
+
+		SigningKeyCache cache = keyring.signer("tenant-a").getSigningKeyCache();
+
+		assertEquals(1, cache.size());
+
+		keyring.invalidate("tenant-a");
+
+		assertEquals(1, cache.size());
+
+		keyring.invalidate("tenant-d");
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testThatTheCredentialsResolverIsMandatory() {
+		try {
+			DEPKeyring.builder().hostName("api.dep.mtn.co.za").build();
+
+			fail("No exception were thrown for mandatory field credentialsResolver.");
+		} catch (DEPValidationException e) {
+			assertEquals("No credentialsResolver provided. The credentialsResolver is a mandatory field and cannot be null.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testThatTheMaximumNumberOfTenantsIsValidated() {
+		try {
+			buildKeyring(0);
+
+			fail("No exception was thrown for a maximum of 0 tenants.");
+		} catch (DEPValidationException e) {
+			assertEquals("The maximum number of tenants must be at least 1.", e.getMessage());
+		}
+	}
+
+	@Test(expected = DEPValidationException.class)
+	public void testThatTheServiceCannotContainASlash() throws DEPValidationException {
+		DEPKeyring.builder().credentialsResolver(credentials::get).hostName("api.dep.mtn.co.za").service("execute-api/x").build();
+	}
+
+	private DEPKeyring buildKeyring(int maximumTenants) throws DEPValidationException {
+		return DEPKeyring
+			.builder()
+				.credentialsResolver(tenantId -> {
+					resolutions.incrementAndGet();
+
+					return credentials.get(tenantId);
+				})
+				.hostName("api.dep.mtn.co.za")
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+				.maximumTenants(maximumTenants)
+			.build();
+	}
+}
@@ -0,0 +1,263 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+public class DEPSignatureVerifierTest {
+
+	private final Instant timestamp = Instant.parse("2018-10-22T12:59:51Z");
+
+	private final String deleteAuthorization = "AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca";
+
+	@Test
+	public void testThatAValidSignatureIsAccepted() throws DEPValidationException {
+		assertEquals(VerificationResult.VALID, buildVerifier(timestamp).verify(delete(deleteAuthorization, "20181022T125951Z").build()));
+	}
+
+	@Test
+	public void testThatASignedPOSTWithAQueryStringIsAccepted() throws DEPValidationException {
+		QueryStringProcessor query = new QueryStringProcessor();
+
+		query.addQueryParameter("expand", "subscription(status=2,page=1,svc_id=1)");
+
+		AuthenticationHeaders headers = buildSigner(true).sign(HttpMethod.POST, "/subscription", query, "{\"one\":\"one\"}", timestamp);
+
+		VerificationRequest.VerificationRequestBuilder request = VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.POST)
+				.requestPath("/subscription")
+				.rawQuery(query.getUnsortedQueryString(true))
+				.hostName("api.dep.mtn.co.za")
+				.authorization(headers.getAuthorizationString())
+				.xAmzDate(headers.getXAmzDate())
+				.xAmzContentSha256(headers.getXAmzContentSha256())
+				.body("{\"one\":\"one\"}");
+
+		assertEquals(VerificationResult.VALID, buildVerifier(timestamp).verify(request.build()));
+		assertEquals(VerificationResult.PAYLOAD_MISMATCH, buildVerifier(timestamp).verify(request.body("{\"one\":\"two\"}").build()));
+	}
+
+	@Test
+	public void testThatAnUppercaseContentSha256IsAPayloadMismatch() throws DEPValidationException {
+		AuthenticationHeaders headers = buildSigner(true).sign(HttpMethod.POST, "/subscription", null, "{\"one\":\"one\"}", timestamp);
+
+		VerificationRequest request = VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.POST)
+				.requestPath("/subscription")
+				.hostName("api.dep.mtn.co.za")
+				.authorization(headers.getAuthorizationString())
+				.xAmzDate(headers.getXAmzDate())
+				.xAmzContentSha256(headers.getXAmzContentSha256().toUpperCase(Locale.ROOT))
+				.body("{\"one\":\"one\"}")
+			.build();
+
+		assertEquals(VerificationResult.PAYLOAD_MISMATCH, buildVerifier(timestamp).verify(request));
+	}
+
+	@Test
+	public void testThatAChangedRequestIsRejected() throws DEPValidationException {
+		VerificationRequest request = delete(deleteAuthorization, "20181022T125951Z").requestPath("/subscription/50273441").build();
+
+		assertEquals(VerificationResult.SIGNATURE_MISMATCH, buildVerifier(timestamp).verify(request));
+	}
+
+	@Test
+	public void testThatARequestOutsideOfTheClockSkewIsRejected() throws DEPValidationException {
+		VerificationRequest request = delete(deleteAuthorization, "20181022T125951Z").build();
+
+		assertEquals(VerificationResult.VALID, buildVerifier(timestamp.plus(Duration.ofMinutes(5))).verify(request));
+		assertEquals(VerificationResult.EXPIRED, buildVerifier(timestamp.plus(Duration.ofMinutes(5)).plusSeconds(1)).verify(request));
+		assertEquals(VerificationResult.EXPIRED, buildVerifier(timestamp.minus(Duration.ofMinutes(6))).verify(request));
+	}
+
+	@Test
+	public void testThatAnUnknownAccessKeyIsRejected() throws DEPValidationException {
+		VerificationRequest request = delete(deleteAuthorization.replace("TESTKEY", "OTHERKEY"), "20181022T125951Z").build();
+
+		assertEquals(VerificationResult.UNKNOWN_ACCESS_KEY, buildVerifier(timestamp).verify(request));
+	}
+
+	@Test
+	public void testThatACredentialScopeForAnotherDateOrRegionIsRejected() throws DEPValidationException {
+		DEPSignatureVerifier verifier = buildVerifier(timestamp);
+
+		assertEquals(VerificationResult.INVALID_SCOPE, verifier.verify(delete(deleteAuthorization.replace("20181022", "20181021"), "20181022T125951Z").build()));
+		assertEquals(VerificationResult.INVALID_SCOPE, verifier.verify(delete(deleteAuthorization.replace("eu-west-1", "us-east-1"), "20181022T125951Z").build()));
+	}
+
+	@Test
+	public void testThatMalformedHeadersAreRejected() throws DEPValidationException {
+		DEPSignatureVerifier verifier = buildVerifier(timestamp);
+
+		assertEquals(VerificationResult.MALFORMED, verifier.verify(delete(null, "20181022T125951Z").build()));
+		assertEquals(VerificationResult.MALFORMED, verifier.verify(delete(deleteAuthorization, null).build()));
+		assertEquals(VerificationResult.MALFORMED, verifier.verify(delete(deleteAuthorization, "2018-10-22T12:59:51Z").build()));
+		assertEquals(VerificationResult.MALFORMED, verifier.verify(delete(deleteAuthorization.substring(0, deleteAuthorization.length() - 1), "20181022T125951Z").build()));
+		assertEquals(VerificationResult.MALFORMED, verifier.verify(delete(deleteAuthorization.replace("host;x-amz-date", "host"), "20181022T125951Z").build()));
+		assertEquals(VerificationResult.MALFORMED, verifier.verify(delete("Bearer token", "20181022T125951Z").build()));
+	}
+
+	@Test
+	public void testThatAnEmptyQueryIsTreatedAsNoQuery() throws DEPValidationException {
+		DEPSignatureVerifier verifier = buildVerifier(timestamp);
+
+		assertEquals(VerificationResult.VALID, verifier.verify(delete(deleteAuthorization, "20181022T125951Z").rawQuery("&").build()));
+		assertEquals(VerificationResult.VALID, verifier.verify(delete(deleteAuthorization, "20181022T125951Z").query(new QueryStringProcessor()).build()));
+	}
+
+	@Test
+	public void testThatAnUnsignedPayloadIsOnlyAcceptedWhenAllowed() throws DEPValidationException {
+		VerificationRequest request = VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.POST)
+				.requestPath("/subscription")
+				.hostName("api.dep.mtn.co.za")
+				.authorization("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=f382ada942a1c2a24ce25e4832be6250088d955186f6d7ebd2b7efe582c79481")
+				.xAmzDate("20181022T125951Z")
+				.xAmzContentSha256("UNSIGNED-PAYLOAD")
+				.body("{\"one\":\"two\"}")
+			.build();
+		DEPSignatureVerifier verifier = DEPSignatureVerifier
+			.builder()
+				.secretResolver(accessKey -> "TESTKEY".equals(accessKey) ? "TESTSECRET" : null)
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+				.allowUnsignedPayload(true)
+			.build();
+
+		assertEquals(VerificationResult.UNSIGNED_PAYLOAD, buildVerifier(timestamp).verify(request));
+		assertEquals(VerificationResult.VALID, verifier.verify(request));
+	}
+
+	@Test
+	public void testThatTheBodyIsHashedOnceWhenThePreviousSecretIsTried() throws DEPValidationException {
+		AtomicInteger hashes = new AtomicInteger();
+		AuthenticationHeaders headers = buildSigner(true).sign(HttpMethod.POST, "/subscription", null, "{\"one\":\"one\"}", timestamp);
+		DEPSignatureVerifier verifier = DEPSignatureVerifier
+			.builder()
+				.secretResolver(new SecretResolver() {
+					@Override
+					public String resolveSecret(String accessKey) {
+						return "NEWSECRET";
+					}
+
+					@Override
+					public String resolvePreviousSecret(String accessKey) {
+						return "TESTSECRET";
+					}
+				})
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+				.metrics(new SigningMetrics() {
+					@Override
+					public boolean isEnabled() {
+						return true;
+					}
+
+					@Override
+					public void recordPayloadHashing(long nanos, long payloadSize) {
+						hashes.incrementAndGet();
+					}
+				})
+			.build();
+		VerificationRequest request = VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.POST)
+				.requestPath("/subscription")
+				.hostName("api.dep.mtn.co.za")
+				.authorization(headers.getAuthorizationString())
+				.xAmzDate(headers.getXAmzDate())
+				.xAmzContentSha256(headers.getXAmzContentSha256())
+				.body("{\"one\":\"one\"}")
+			.build();
+
+		assertEquals(VerificationResult.VALID, verifier.verify(request));
+		assertEquals(1, hashes.get());
+	}
+
+	@Test
+	public void testThatARequestSignedWithAnUnsignedPayloadCanBeVerified() throws DEPValidationException {
+		AuthenticationHeaders headers = DEPAuthentication
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.httpMethod(HttpMethod.POST)
+				.requestPath("/subscription")
+				.timestamp(timestamp.atZone(ZoneOffset.UTC))
+				.hostName("api.dep.mtn.co.za")
+				.body("{\"one\":\"one\"}")
+				.unsignedPayload()
+			.build()
+			.createAuthenticationHeaders();
+		VerificationRequest request = VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.POST)
+				.requestPath("/subscription")
+				.hostName("api.dep.mtn.co.za")
+				.authorization(headers.getAuthorizationString())
+				.xAmzDate(headers.getXAmzDate())
+				.xAmzContentSha256(headers.getXAmzContentSha256())
+				.body("{\"one\":\"one\"}")
+			.build();
+		DEPSignatureVerifier verifier = DEPSignatureVerifier
+			.builder()
+				.secretResolver(accessKey -> "TESTKEY".equals(accessKey) ? "TESTSECRET" : null)
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+				.allowUnsignedPayload(true)
+			.build();
+
+		assertEquals(VerificationResult.VALID, verifier.verify(request));
+		assertEquals(VerificationResult.UNSIGNED_PAYLOAD, buildVerifier(timestamp).verify(request));
+	}
+
+	private VerificationRequest.VerificationRequestBuilder delete(String authorization, String xAmzDate) {
+		return VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.DELETE)
+				.requestPath("/subscription/50273440")
+				.hostName("api.dep.mtn.co.za")
+				.authorization(authorization)
+				.xAmzDate(xAmzDate);
+	}
+
+	@Test
+	public void testThatTheVerifierChecksTheConfiguredRegion() throws DEPValidationException {
+		DEPSignatureVerifier verifier = DEPSignatureVerifier
+			.builder()
+				.secretResolver(accessKey -> "TESTKEY".equals(accessKey) ? "TESTSECRET" : null)
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+				.region("af-south-1")
+			.build();
+		String authorization = "AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/af-south-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=7b97d6f81710878197cc9f54bcdb6c26bcc0a8038e17666fc4089ffc67b862ac";
+
+		assertEquals(VerificationResult.VALID, verifier.verify(delete(authorization, "20181022T125951Z").build()));
+		assertEquals(VerificationResult.INVALID_SCOPE, verifier.verify(delete(deleteAuthorization, "20181022T125951Z").build()));
+	}
+
+	private DEPSignatureVerifier buildVerifier(Instant now) throws DEPValidationException {
+		return DEPSignatureVerifier
+			.builder()
+				.secretResolver(accessKey -> "TESTKEY".equals(accessKey) ? "TESTSECRET" : null)
+				.clock(Clock.fixed(now, ZoneOffset.UTC))
+			.build();
+	}
+
+	private DEPSigner buildSigner(boolean signContentSha256) throws DEPValidationException {
+		return DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+				.signContentSha256(signContentSha256)
+			.build();
+	}
+}
@@ -0,0 +1,158 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+public class DEPSignerTest {
+
+	private final Instant timestamp = Instant.parse("2018-10-22T12:59:51.000000428Z");
+
+	@Test
+	public void testThatAutorizationStringIsCorrectForDELETE() throws DEPValidationException {
+		AuthenticationHeaders headers = buildSigner().sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null, timestamp);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca", headers.getAuthorizationString());
+		assertEquals("20181022T125951Z", headers.getXAmzDate());
+	}
+
+	@Test
+	public void testThatAutorizationStringIsCorrectForPOST() throws DEPValidationException {
+		AuthenticationHeaders headers = buildSigner().sign(HttpMethod.POST, "/subscription", null, "{\"one\":\"one\"}", timestamp);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=e28d5a3de0973c0cd7cd5ce86a87157897f118ea85791f540819d0201771cd3b", headers.getAuthorizationString());
+	}
+
+	@Test
+	public void testThatACallWithQueryParametersSuccessfullyGenerateAuthHeader() throws DEPValidationException {
+		QueryStringProcessor queryStringProcessor = new QueryStringProcessor();
+
+		queryStringProcessor.addQueryParameter("expand", "subscription(status=2,page=1,svc_id=1)");
+
+		AuthenticationHeaders headers = buildSigner().sign(HttpMethod.GET, "/service/1", queryStringProcessor, (String) null, Instant.parse("2019-04-16T09:10:10.000000123Z"));
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20190416/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=5344a4e4d60b2a0c86fce8dea98ffb40e74cddbf69f3b5e47c5b094b8a284334", headers.getAuthorizationString());
+		assertEquals("20190416T091010Z", headers.getXAmzDate());
+	}
+
+	@Test
+	public void testThatTheClockOfTheSignerIsUsedWhenNoTimestampIsGiven() throws DEPValidationException {
+		DEPSigner signer = DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+			.build();
+
+		AuthenticationHeaders headers = signer.sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca", headers.getAuthorizationString());
+		assertEquals("20181022T125951Z", headers.getXAmzDate());
+	}
+
+	@Test
+	public void testThatASignerCanBeSharedBetweenThreads() throws Exception {
+		DEPSigner signer = buildSigner();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		try {
+			List<Future<String>> results = new ArrayList<>();
+
+			for (int i = 0; i < 200; i++) {
+				Callable<String> task = () -> signer.sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null, timestamp).getAuthorizationString();
+
+				results.add(executor.submit(task));
+			}
+
+			for (Future<String> result : results) {
+				assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca", result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testThatHostNameIsMandatory() {
+		try {
+			DEPSigner.builder().accessKey("TESTKEY").accessSecret("TESTSECRET").build();
+
+			fail("No exception were thrown for mandatory field hostName.");
+		} catch (DEPValidationException e) {
+			assertEquals("No hostName provided. The hostName is a mandatory field and cannot be null.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testThatTheRegionAndServiceArePartOfTheSignature() throws DEPValidationException {
+		DEPSigner regionSigner = DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+				.region("af-south-1")
+			.build();
+		DEPSigner serviceSigner = DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+				.region("af-south-1")
+				.service("dep-api")
+			.build();
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/af-south-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=7b97d6f81710878197cc9f54bcdb6c26bcc0a8038e17666fc4089ffc67b862ac",
+				regionSigner.sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null, timestamp).getAuthorizationString());
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/af-south-1/dep-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=6bbb89989d04912d3c759ff25c14d957627caa1a282e070df45e90d0110c9ae5",
+				serviceSigner.sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null, timestamp).getAuthorizationString());
+	}
+
+	@Test
+	public void testThatTheSigningScopeFollowsTheDateOfTheRequest() throws DEPValidationException {
+		DEPSigner signer = buildSigner();
+		Instant nextDay = Instant.parse("2019-04-16T09:10:10.000000123Z");
+		QueryStringProcessor query = new QueryStringProcessor();
+
+		query.addQueryParameter("expand", "subscription(status=2,page=1,svc_id=1)");
+
+		for (int i = 0; i < 2; i++) {
+			assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca",
+					signer.sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null, timestamp).getAuthorizationString());
+			assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20190416/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=5344a4e4d60b2a0c86fce8dea98ffb40e74cddbf69f3b5e47c5b094b8a284334",
+					signer.sign(HttpMethod.GET, "/service/1", query, (String) null, nextDay).getAuthorizationString());
+		}
+	}
+
+	@Test(expected = DEPValidationException.class)
+	public void testThatTheRegionCannotContainASlash() throws DEPValidationException {
+		DEPSigner.builder().accessKey("TESTKEY").accessSecret("TESTSECRET").hostName("api.dep.mtn.co.za").region("af-south-1/x").build();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testThatTheHttpMethodMustBeProvidedPerRequest() throws DEPValidationException {
+		buildSigner().sign(null, "/subscription", null, (String) null, timestamp);
+	}
+
+	private DEPSigner buildSigner() throws DEPValidationException {
+		return DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+			.build();
+	}
+}
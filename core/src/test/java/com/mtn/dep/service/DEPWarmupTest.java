@@ -0,0 +1,29 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+public class DEPWarmupTest {
+
+	@Test
+	public void testThatWarmUpCanBeCalledMoreThanOnce() {
+		assertFalse(DEPWarmup.warmUp().isNegative());
+		assertFalse(DEPWarmup.warmUp().isNegative());
+	}
+
+	@Test
+	public void testThatWarmUpLeavesNoKeysInTheSharedCache() {
+		int size = SigningKeyCache.shared().size();
+
+		Duration duration = DEPWarmup.warmUp();
+
+		assertFalse(duration.isNegative());
+		assertEquals(size, SigningKeyCache.shared().size());
+		assertEquals(null, SigningKeyCache.shared().get("WARMUPSECRET", TimestampSource.system().now().getRequestDate(),
+				AuthenticationService.DEFAULT_REGION, AuthenticationService.DEFAULT_SERVICE));
+	}
+}
@@ -0,0 +1,71 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+
+import org.junit.Test;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+public class EndpointTemplateTest {
+
+	private final Instant timestamp = Instant.parse("2018-10-22T12:59:51.000000428Z");
+
+	@Test
+	public void testThatAutorizationStringIsCorrectForDELETE() throws DEPValidationException {
+		AuthenticationHeaders headers = buildSigner(false).endpoint(HttpMethod.DELETE, "/subscription/50273440").sign(null, null, timestamp);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca", headers.getAuthorizationString());
+		assertEquals("20181022T125951Z", headers.getXAmzDate());
+	}
+
+	@Test
+	public void testThatAutorizationStringIsCorrectForPOST() throws DEPValidationException {
+		AuthenticationHeaders headers = buildSigner(false).endpoint(HttpMethod.POST, "/subscription").sign(null, Payload.of("{\"one\":\"one\"}"), timestamp);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=e28d5a3de0973c0cd7cd5ce86a87157897f118ea85791f540819d0201771cd3b", headers.getAuthorizationString());
+	}
+
+	@Test
+	public void testThatTheSignatureMatchesTheSignerForEveryTypeOfEndpoint() throws DEPValidationException {
+		StringBuilder longPath = new StringBuilder();
+
+		while (longPath.length() < 600) {
+			longPath.append("/subscription/50273440");
+		}
+
+		String[] paths = { "/service/1", "/subscription/" + longPath.substring(0, 50), longPath.toString(), "/subscription/café" };
+
+		for (boolean signContentSha256 : new boolean[] { false, true }) {
+			DEPSigner signer = buildSigner(signContentSha256);
+
+			for (String path : paths) {
+				QueryStringProcessor query = new QueryStringProcessor();
+
+				query.addQueryParameter("expand", "subscription(status=2,page=1,svc_id=1)");
+
+				AuthenticationHeaders expected = signer.sign(HttpMethod.PUT, path, query, Payload.of("{\"one\":\"one\"}"), timestamp);
+				AuthenticationHeaders actual = signer.endpoint(HttpMethod.PUT, path).sign(query, Payload.of("{\"one\":\"one\"}"), timestamp);
+
+				assertEquals(expected.getAuthorizationString(), actual.getAuthorizationString());
+				assertEquals(expected.getXAmzContentSha256(), actual.getXAmzContentSha256());
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testThatTheRequestPathIsMandatory() throws DEPValidationException {
+		buildSigner(false).endpoint(HttpMethod.GET, null);
+	}
+
+	private DEPSigner buildSigner(boolean signContentSha256) throws DEPValidationException {
+		return DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+				.signContentSha256(signContentSha256)
+			.build();
+	}
+}
@@ -0,0 +1,46 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+
+import org.junit.Test;
+
+public class HmacSha256KeyTest {
+
+	private final byte[] data = ("AWS4-HMAC-SHA256\n20181022T125951Z\n20181022/eu-west-1/execute-api/aws4_request\n"
+			+ "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855").getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void testThatTheSignatureMatchesTheMacForEveryKeyLength() throws InvalidKeyException {
+		for (int length : new int[] { 1, 32, 63, 64, 65, 200 }) {
+			byte[] key = createKey(length);
+			HmacSha256Key hmacKey = HmacSha256Key.of(key);
+
+			assertTrue(hmacKey.isPrecomputed());
+			assertArrayEquals("Key length " + length, CryptoContext.get().hmac(key, data), hmacKey.sign(data));
+		}
+	}
+
+	@Test
+	public void testThatAKeyCanBeUsedForManySignatures() throws InvalidKeyException {
+		HmacSha256Key hmacKey = HmacSha256Key.of(createKey(32));
+		byte[] expected = hmacKey.sign(data);
+
+		hmacKey.sign(new byte[] { 1, 2, 3 });
+
+		assertArrayEquals(expected, hmacKey.sign(data));
+	}
+
+	private static byte[] createKey(int length) {
+		byte[] key = new byte[length];
+
+		for (int i = 0; i < length; i++) {
+			key[i] = (byte) (i * 7 + 1);
+		}
+
+		return key;
+	}
+}
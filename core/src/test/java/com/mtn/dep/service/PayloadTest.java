@@ -0,0 +1,213 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.junit.Test;
+
+import com.mtn.dep.Authentication;
+import com.mtn.dep.AuthenticationHeaders;
+
+public class PayloadTest {
+
+	private final String body = "{\"one\":\"one\"}";
+	private final String bodyHash = "867cf6a22284c2d50ba6efc9c1b31bd103e57b2bfa300551e61d67e2ef1b3ff6";
+	private final String result = "AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=e28d5a3de0973c0cd7cd5ce86a87157897f118ea85791f540819d0201771cd3b";
+	private final ZonedDateTime timestamp = ZonedDateTime.of(LocalDate.of(2018, 10, 22), LocalTime.of(12, 59, 51, 428), ZoneId.of("UTC"));
+
+	@Test
+	public void testThatAnInputStreamIsHashedLikeTheEquivalentString() {
+		Authentication auth = buildPOST(Payload.of(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+
+		assertEquals(result, auth.createAuthenticationHeaders().getAuthorizationString());
+	}
+
+	@Test
+	public void testThatAChannelIsHashedLikeTheEquivalentString() {
+		Authentication auth = buildPOST(Payload.of(Channels.newChannel(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))));
+
+		assertEquals(result, auth.createAuthenticationHeaders().getAuthorizationString());
+	}
+
+	@Test
+	public void testThatByteBuffersAreHashedInPlaceLikeTheEquivalentString() {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length - 5);
+
+		direct.put(bytes, 5, bytes.length - 5).flip();
+
+		ByteBuffer heap = ByteBuffer.wrap(bytes, 0, 5);
+		Authentication auth = buildPOST(Payload.of(heap, direct));
+
+		assertEquals(result, auth.createAuthenticationHeaders().getAuthorizationString());
+		assertEquals(result, auth.createAuthenticationHeaders().getAuthorizationString());
+		assertEquals(body, auth.getJsonBody());
+		assertEquals(0, heap.position());
+		assertEquals(0, direct.position());
+	}
+
+	@Test
+	public void testThatAFileIsHashedLikeTheEquivalentString() throws IOException {
+		Path file = Files.createTempFile("payload", ".json");
+
+		try {
+			Files.write(file, body.getBytes(StandardCharsets.UTF_8));
+
+			Authentication auth = buildPOST(Payload.of(file));
+
+			assertEquals(result, auth.createAuthenticationHeaders().getAuthorizationString());
+			assertEquals(body, auth.getJsonBody());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testThatAStreamCanBeSignedMoreThanOnce() {
+		Authentication auth = buildPOST(Payload.of(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+
+		auth.createAuthenticationHeaders();
+
+		assertEquals(result, auth.createAuthenticationHeaders().getAuthorizationString());
+	}
+
+	@Test
+	public void testThatTheJsonBodyOfAStreamIsAvailableBeforeSigning() {
+		Authentication auth = buildPOST(Payload.of(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+
+		assertEquals(body, auth.getJsonBody());
+		assertEquals(result, auth.createAuthenticationHeaders().getAuthorizationString());
+	}
+
+	@Test
+	public void testThatAStreamThatIsNotValidUtf8IsHashedAsItWasRead() {
+		byte[] bytes = { '{', '"', 'a', '"', ':', '"', (byte) 0xc3, (byte) 0x28, (byte) 0xff, '"', '}' };
+		String expected = CryptoContext.toHex(CryptoContext.get().sha256(bytes));
+		Payload payload = Payload.of(new ByteArrayInputStream(bytes));
+
+		payload.getText();
+
+		assertEquals(expected, payload.hashHex(CryptoContext.get()));
+	}
+
+	@Test
+	public void testThatTheSizeOfABufferedStreamIsItsByteLength() {
+		byte[] bytes = "{\"name\":\"caf\u00e9 \u20ac\"}".getBytes(StandardCharsets.UTF_8);
+		Payload payload = Payload.of(new ByteArrayInputStream(bytes));
+
+		assertEquals(-1, payload.estimateSize());
+
+		payload.getText();
+
+		assertEquals(bytes.length, payload.estimateSize());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testThatTheJsonBodyOfAConsumedStreamIsNotAvailable() {
+		Authentication auth = buildPOST(Payload.of(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+
+		auth.createAuthenticationHeaders();
+		auth.getJsonBody();
+	}
+
+	@Test
+	public void testThatTheHashOfTheBodyIsCorrect() {
+		assertEquals(bodyHash, Payload.of(body).hashHex(CryptoContext.get()));
+	}
+
+	@Test
+	public void testThatTheSizeOfATextBodyIsItsUtf8Length() {
+		String[] texts = { body, "caf\u00e9", "\u20ac100", "\ud83d\ude00 ok", "bad \ud83d", "" };
+
+		for (String text : texts) {
+			assertEquals(text, text.getBytes(StandardCharsets.UTF_8).length, Payload.of(text).estimateSize());
+		}
+	}
+
+	@Test
+	public void testThatAPrecomputedHexHashIsUsedInsteadOfTheBody() throws DEPValidationException {
+		Authentication auth = buildPOST().payloadHash(bodyHash.toUpperCase()).build();
+
+		assertEquals(result, auth.createAuthenticationHeaders().getAuthorizationString());
+	}
+
+	@Test
+	public void testThatAPrecomputedByteHashIsUsedInsteadOfTheBody() throws DEPValidationException {
+		Authentication auth = buildPOST().payloadHash(CryptoContext.get().sha256(body.getBytes(StandardCharsets.UTF_8))).build();
+
+		assertEquals(result, auth.createAuthenticationHeaders().getAuthorizationString());
+	}
+
+	@Test
+	public void testThatThePrecomputedHashIsSignedAsAHeader() throws DEPValidationException {
+		Authentication auth = buildPOST().payloadHash(bodyHash).signContentSha256(true).build();
+
+		AuthenticationHeaders headers = auth.createAuthenticationHeaders();
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-content-sha256;x-amz-date, Signature=80bb3a32e6e3bc23f8e711c0c2519da542bbada4de0add5c08a5ca3cd1bae31e", headers.getAuthorizationString());
+		assertEquals(bodyHash, headers.getXAmzContentSha256());
+	}
+
+	@Test
+	public void testThatAnUnsignedPayloadIsNotHashed() throws DEPValidationException {
+		Authentication auth = buildPOST().unsignedPayload().build();
+
+		AuthenticationHeaders headers = auth.createAuthenticationHeaders();
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-content-sha256;x-amz-date, Signature=90bb0c358ca457985c19608bf8af8bcf3c7832d07dd698ea2fb578c9d84d13bb", headers.getAuthorizationString());
+		assertEquals("UNSIGNED-PAYLOAD", headers.getXAmzContentSha256());
+	}
+
+	@Test
+	public void testThatAnUnsignedPayloadCanBePassedAsThePayloadHash() throws DEPValidationException {
+		AuthenticationHeaders expected = buildPOST().unsignedPayload().build().createAuthenticationHeaders();
+		AuthenticationHeaders headers = buildPOST().payloadHash("UNSIGNED-PAYLOAD").build().createAuthenticationHeaders();
+
+		assertEquals(expected.getAuthorizationString(), headers.getAuthorizationString());
+		assertEquals("UNSIGNED-PAYLOAD", headers.getXAmzContentSha256());
+	}
+
+	@Test
+	public void testThatAnInvalidPayloadHashIsRejected() {
+		try {
+			buildPOST().payloadHash("abc").build();
+
+			fail("No exception were thrown for an invalid payloadHash.");
+		} catch (DEPValidationException e) {
+			assertEquals("The payloadHash should be a hex encoded SHA-256 hash of 64 characters.", e.getMessage());
+		}
+	}
+
+	private DEPAuthentication.DEPAuthenticationBuilder buildPOST() {
+		return DEPAuthentication
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.httpMethod(HttpMethod.POST)
+				.requestPath("/subscription")
+				.timestamp(timestamp)
+				.hostName("api.dep.mtn.co.za");
+	}
+
+	private Authentication buildPOST(Payload payload) {
+		try {
+			return buildPOST().body(payload).build();
+		} catch (DEPValidationException e) {
+			fail("The DEPAuthentication object could not be built.");
+
+			return null;
+		}
+	}
+}
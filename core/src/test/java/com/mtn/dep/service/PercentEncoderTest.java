@@ -0,0 +1,53 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PercentEncoderTest {
+
+	@Test
+	public void testThatTextWithoutReservedCharactersIsReturnedAsIs() {
+		String text = "subscription-Status_2.page~1";
+
+		assertSame(text, PercentEncoder.encode(text));
+	}
+
+	@Test
+	public void testThatReservedCharactersAreEncodedWithUpperCaseHex() {
+		assertEquals("subscription%28status%3D2%2Cpage%3D1%2Csvc_id%3D1%29", PercentEncoder.encode("subscription(status=2,page=1,svc_id=1)"));
+		assertEquals("a%20b%2Bc%2A", PercentEncoder.encode("a b+c*"));
+	}
+
+	@Test
+	public void testThatNonAsciiCharactersAreEncodedAsUtf8() {
+		assertEquals("caf%C3%A9%20%E2%82%AC%F0%9F%98%80", PercentEncoder.encode("café €😀"));
+		assertEquals("a%3Fb", PercentEncoder.encode("a\ud83db"));
+	}
+
+	@Test
+	public void testThatTheOutputMatchesTheFormEncodingForAllButTheTildeAndAsterisk() throws UnsupportedEncodingException {
+		Random random = new Random(42);
+
+		for (int i = 0; i < 1000; i++) {
+			StringBuilder text = new StringBuilder();
+
+			for (int j = random.nextInt(32); j > 0; j--) {
+				char c = (char) (random.nextBoolean() ? 0x20 + random.nextInt(0x5F) : random.nextInt(0xD800));
+
+				if (c != '~' && c != '*') {
+					text.append(c);
+				}
+			}
+
+			String expected = URLEncoder.encode(text.toString(), "UTF-8").replace("+", "%20");
+
+			assertEquals(expected, PercentEncoder.encode(text.toString()));
+		}
+	}
+}
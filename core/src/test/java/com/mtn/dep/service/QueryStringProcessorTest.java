@@ -1,6 +1,7 @@
 package com.mtn.dep.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import org.junit.Test;
 
@@ -131,4 +132,35 @@ public class QueryStringProcessorTest {
 		assertEquals("-=1&A=%3D&_=.&~=%20", queryStringProcessor.getUnsortedQueryString(true));
 	}
 	
+	@Test
+	public void testThatARawQueryStringIsParsedAndEncodedAgain() {
+		QueryStringProcessor queryStringProcessor = QueryStringProcessor.parse("page=1&expand=subscription(status%3D2,page%3D1)&name=caf%C3%A9+bar&flag");
+		
+		assertEquals("expand=subscription%28status%3D2%2Cpage%3D1%29&flag=&name=caf%C3%A9%2Bbar&page=1", queryStringProcessor.getQueryString(true));
+		assertEquals("page=1&expand=subscription(status=2,page=1)&name=café+bar&flag=", queryStringProcessor.getUnsortedQueryString(false));
+	}
+	
+	@Test
+	public void testThatAnEmptyRawQueryStringIsParsedAsNull() {
+		assertNull(QueryStringProcessor.parse(""));
+		assertNull(QueryStringProcessor.parse(null));
+	}
+	
+	@Test
+	public void testThatARawQueryStringOfSeparatorsOnlyIsParsedAsNull() {
+		assertNull(QueryStringProcessor.parse("&"));
+		assertNull(QueryStringProcessor.parse("&&"));
+	}
+	
+	@Test
+	public void testThatAnEmptyProcessorHasAnEmptyQueryString() {
+		assertEquals("", new QueryStringProcessor().getQueryString(true));
+		assertEquals("", new QueryStringProcessor().getUnsortedQueryString(false));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testThatAnInvalidPercentEncodingIsRejected() {
+		QueryStringProcessor.parse("page=%2");
+	}
+	
 }
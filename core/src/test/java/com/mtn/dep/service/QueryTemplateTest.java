@@ -0,0 +1,71 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+
+import org.junit.Test;
+
+public class QueryTemplateTest {
+
+	@Test
+	public void testThatTheQueryStringsMatchTheQueryStringProcessor() {
+		String[] names = { "size", "a-", "a", "msisdn", "~", "A b" };
+		String[] values = { "50", "x", "y z", "27830000000", " ", "=" };
+
+		QueryStringProcessor processor = new QueryStringProcessor();
+
+		for (int i = 0; i < names.length; i++) {
+			processor.addQueryParameter(names[i], values[i]);
+		}
+
+		QueryStringProcessor query = QueryTemplate.compile(names).bind(values);
+
+		assertEquals(processor.getQueryString(true), query.getQueryString(true));
+		assertEquals(processor.getQueryString(false), query.getQueryString(false));
+		assertEquals(processor.getUnsortedQueryString(true), query.getUnsortedQueryString(true));
+		assertEquals(processor.getUnsortedQueryString(false), query.getUnsortedQueryString(false));
+	}
+
+	@Test
+	public void testThatTheTemplateCanBeBoundMoreThanOnce() {
+		QueryTemplate template = QueryTemplate.compile("page", "msisdn");
+
+		assertEquals("msisdn=27830000000&page=1", template.bind("1", "27830000000").getQueryString(true));
+		assertEquals("msisdn=27830000001&page=2", template.bind("2", "27830000001").getQueryString(true));
+		assertEquals("page=2&msisdn=27830000001", template.bind("2", "27830000001").getUnsortedQueryString(true));
+	}
+
+	@Test
+	public void testThatABoundQueryCanBeSigned() throws DEPValidationException {
+		DEPSigner signer = DEPSigner.builder().accessKey("TESTKEY").accessSecret("TESTSECRET").hostName("api.dep.mtn.co.za").build();
+		QueryTemplate.BoundQuery query = QueryTemplate.compile("expand").bind("subscription(status=2,page=1,svc_id=1)");
+
+		String authorizationString = signer.sign(HttpMethod.GET, "/service/1", query, (String) null, Instant.parse("2019-04-16T09:10:10.000000123Z"))
+				.getAuthorizationString();
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20190416/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=5344a4e4d60b2a0c86fce8dea98ffb40e74cddbf69f3b5e47c5b094b8a284334", authorizationString);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testThatParameterNamesMustBeUnique() {
+		QueryTemplate.compile("page", "size", "page");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testThatAValueMustBeBoundForEveryParameter() {
+		QueryTemplate.compile("page", "size").bind("1");
+	}
+
+	@Test
+	public void testThatParametersCanBeAddedToABoundQuery() {
+		QueryStringProcessor query = QueryTemplate.compile("page", "msisdn").bind("1", "27830000000");
+
+		assertEquals("msisdn=27830000000&page=1", query.getQueryString(true));
+
+		query.addQueryParameter("expand", "subscription");
+
+		assertEquals("expand=subscription&msisdn=27830000000&page=1", query.getQueryString(true));
+		assertEquals("page=1&msisdn=27830000000&expand=subscription", query.getUnsortedQueryString(false));
+	}
+}
@@ -0,0 +1,149 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ReplayGuardTest {
+
+	private final long now = Instant.parse("2018-10-22T12:59:51Z").getEpochSecond();
+
+	@Test
+	public void testThatASignatureIsOnlyAcceptedOnce() {
+		ReplayGuard guard = ReplayGuard.builder().build();
+		byte[] signature = randomSignatures(1, 1)[0];
+
+		assertTrue(guard.markIfNew(signature, now));
+		assertFalse(guard.markIfNew(signature, now));
+		assertEquals(1, guard.getReplayCount());
+	}
+
+	@Test
+	public void testThatTheFalsePositiveRateHoldsUpToTheCapacity() {
+		ReplayGuard guard = ReplayGuard.builder().maximumMemory(22 * 64 * 1024).falsePositiveRate(0.01).build();
+		byte[][] signatures = randomSignatures(2, (int) guard.getCapacity());
+
+		int falsePositives = 0;
+
+		for (byte[] signature : signatures) {
+			if (!guard.markIfNew(signature, now)) {
+				falsePositives++;
+			}
+		}
+
+		assertTrue("Too many false positives: " + falsePositives, falsePositives < signatures.length * 0.02);
+	}
+
+	@Test
+	public void testThatTheMemoryUseStaysWithinTheCap() {
+		ReplayGuard guard = ReplayGuard.builder().maximumMemory(1024 * 1024).build();
+
+		assertTrue(guard.getMemoryUsage() <= 1024 * 1024);
+	}
+
+	@Test
+	public void testThatSlotsAreReusedOnceTheirTimeHasPassed() {
+		ReplayGuard guard = ReplayGuard.builder().clockSkew(Duration.ofSeconds(60)).slotDuration(Duration.ofSeconds(30)).maximumMemory(6 * 64).build();
+		byte[] signature = randomSignatures(3, 1)[0];
+		long later = now + 6 * 30;
+
+		assertTrue(guard.markIfNew(signature, now));
+		assertTrue(guard.markIfNew(signature, later));
+		assertFalse(guard.markIfNew(signature, later));
+		assertFalse("A request older than the reused slot must not be accepted.", guard.markIfNew(randomSignatures(4, 1)[0], now));
+	}
+
+	@Test
+	public void testThatConcurrentInsertsAcceptEverySignatureExactlyOnce() throws Exception {
+		ReplayGuard guard = ReplayGuard.builder().build();
+		byte[][] signatures = randomSignatures(5, 2000);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+
+			for (int i = 0; i < 8; i++) {
+				Callable<Integer> task = () -> {
+					int accepted = 0;
+
+					for (byte[] signature : signatures) {
+						if (guard.markIfNew(signature, now)) {
+							accepted++;
+						}
+					}
+
+					return accepted;
+				};
+
+				results.add(executor.submit(task));
+			}
+
+			int accepted = 0;
+
+			for (Future<Integer> result : results) {
+				accepted += result.get();
+			}
+
+			assertEquals(signatures.length, accepted);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testThatTheVerifierRejectsAReplayedRequest() throws DEPValidationException {
+		DEPSignatureVerifier verifier = DEPSignatureVerifier
+			.builder()
+				.secretResolver(accessKey -> "TESTSECRET")
+				.clock(Clock.fixed(Instant.ofEpochSecond(now), ZoneOffset.UTC))
+				.replayGuard(ReplayGuard.builder().build())
+			.build();
+
+		VerificationRequest request = VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.DELETE)
+				.requestPath("/subscription/50273440")
+				.hostName("api.dep.mtn.co.za")
+				.authorization("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca")
+				.xAmzDate("20181022T125951Z")
+			.build();
+
+		assertEquals(VerificationResult.VALID, verifier.verify(request));
+		assertEquals(VerificationResult.REPLAYED, verifier.verify(request));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testThatTheGuardMustCoverTheClockSkewOfTheVerifier() throws DEPValidationException {
+		DEPSignatureVerifier
+			.builder()
+				.secretResolver(accessKey -> "TESTSECRET")
+				.clockSkew(Duration.ofMinutes(10))
+				.replayGuard(ReplayGuard.builder().clockSkew(Duration.ofMinutes(5)).build())
+			.build();
+	}
+
+	private static byte[][] randomSignatures(long seed, int count) {
+		Random random = new Random(seed);
+		byte[][] result = new byte[count][32];
+
+		for (byte[] signature : result) {
+			random.nextBytes(signature);
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,168 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+public class RotatingCredentialsTest {
+
+	private final Instant timestamp = Instant.parse("2018-10-22T12:59:51Z");
+
+	private final String deleteAuthorization = "AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca";
+
+	@Test
+	public void testThatASignerPicksUpRotatedCredentials() throws DEPValidationException {
+		RotatingCredentials credentials = buildCredentials(new MutableClock(timestamp), new SigningKeyCache(10));
+		DEPSigner signer = DEPSigner.builder().credentials(credentials).hostName("api.dep.mtn.co.za").build();
+
+		assertEquals(deleteAuthorization, signer.sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null, timestamp).getAuthorizationString());
+
+		credentials.rotate(DEPCredentials.of("NEWKEY", "NEWSECRET"));
+
+		AuthenticationHeaders headers = signer.sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null, timestamp);
+
+		assertTrue(headers.getAuthorizationString().startsWith("AWS4-HMAC-SHA256 Credential=NEWKEY/20181022/"));
+		assertEquals("NEWKEY", signer.getAccessKey());
+	}
+
+	@Test
+	public void testThatTheSigningKeyIsDerivedBeforeTheCutOver() throws DEPValidationException {
+		SigningKeyCache cache = new SigningKeyCache(10);
+		RotatingCredentials credentials = buildCredentials(new MutableClock(timestamp), cache);
+
+		credentials.rotate(DEPCredentials.of("TESTKEY", "NEWSECRET"));
+
+		assertNotNull(cache.get("NEWSECRET", "20181022", "eu-west-1", "execute-api"));
+	}
+
+	@Test
+	public void testThatTheSigningKeyIsDerivedIntoTheCacheOfTheSigner() throws DEPValidationException {
+		SigningKeyCache credentialsCache = new SigningKeyCache(10);
+		SigningKeyCache signerCache = new SigningKeyCache(10);
+		RotatingCredentials credentials = buildCredentials(new MutableClock(timestamp), credentialsCache);
+
+		DEPSigner
+			.builder()
+				.credentials(credentials)
+				.hostName("api.dep.mtn.co.za")
+				.region("af-south-1")
+				.signingKeyCache(signerCache)
+			.build();
+
+		credentials.rotate(DEPCredentials.of("TESTKEY", "NEWSECRET"));
+
+		assertNotNull(signerCache.get("NEWSECRET", "20181022", "af-south-1", "execute-api"));
+		assertNull(credentialsCache.get("NEWSECRET", "20181022", "eu-west-1", "execute-api"));
+	}
+
+	@Test
+	public void testThatThePreviousSecretIsAcceptedDuringTheOverlap() throws DEPValidationException {
+		MutableClock clock = new MutableClock(timestamp);
+		RotatingCredentials credentials = buildCredentials(clock, new SigningKeyCache(10));
+		DEPSignatureVerifier verifier = DEPSignatureVerifier
+			.builder()
+				.secretResolver(credentials)
+				.clock(Clock.fixed(timestamp, ZoneOffset.UTC))
+			.build();
+		VerificationRequest request = VerificationRequest
+			.builder()
+				.httpMethod(HttpMethod.DELETE)
+				.requestPath("/subscription/50273440")
+				.hostName("api.dep.mtn.co.za")
+				.authorization(deleteAuthorization)
+				.xAmzDate("20181022T125951Z")
+			.build();
+
+		credentials.rotate(DEPCredentials.of("TESTKEY", "NEWSECRET"));
+
+		assertEquals(VerificationResult.VALID, verifier.verify(request));
+
+		clock.instant = timestamp.plus(Duration.ofMinutes(5));
+
+		assertEquals(VerificationResult.SIGNATURE_MISMATCH, verifier.verify(request));
+	}
+
+	@Test
+	public void testThatAReplacedAccessKeyIsOnlyResolvedDuringTheOverlap() throws DEPValidationException {
+		MutableClock clock = new MutableClock(timestamp);
+		RotatingCredentials credentials = buildCredentials(clock, new SigningKeyCache(10));
+
+		credentials.rotate(DEPCredentials.of("NEWKEY", "NEWSECRET"));
+
+		assertEquals("NEWSECRET", credentials.resolveSecret("NEWKEY"));
+		assertEquals("TESTSECRET", credentials.resolveSecret("TESTKEY"));
+		assertNull(credentials.resolvePreviousSecret("NEWKEY"));
+
+		clock.instant = timestamp.plus(Duration.ofMinutes(5));
+
+		assertNull(credentials.resolveSecret("TESTKEY"));
+	}
+
+	@Test
+	public void testThatCredentialsCannotBeRotatedAgainDuringTheOverlap() throws DEPValidationException {
+		MutableClock clock = new MutableClock(timestamp);
+		RotatingCredentials credentials = buildCredentials(clock, new SigningKeyCache(10));
+
+		credentials.rotate(DEPCredentials.of("TESTKEY", "NEWSECRET"));
+
+		try {
+			credentials.rotate(DEPCredentials.of("TESTKEY", "NEWERSECRET"));
+
+			fail("No exception was thrown for a rotation during the overlap window.");
+		} catch (IllegalStateException e) {
+			assertEquals("TESTSECRET", credentials.resolvePreviousSecret("TESTKEY"));
+			assertEquals("NEWSECRET", credentials.getCredentials().getAccessSecret());
+		}
+
+		clock.instant = timestamp.plus(Duration.ofMinutes(5));
+
+		credentials.rotate(DEPCredentials.of("TESTKEY", "NEWERSECRET"));
+
+		assertEquals("NEWSECRET", credentials.resolvePreviousSecret("TESTKEY"));
+	}
+
+	private static RotatingCredentials buildCredentials(Clock clock, SigningKeyCache cache) throws DEPValidationException {
+		return RotatingCredentials
+			.builder()
+				.credentials(DEPCredentials.of("TESTKEY", "TESTSECRET"))
+				.overlap(Duration.ofMinutes(5))
+				.clock(clock)
+				.signingKeyCache(cache)
+			.build();
+	}
+
+	private static final class MutableClock extends Clock {
+		private volatile Instant instant;
+
+		private MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
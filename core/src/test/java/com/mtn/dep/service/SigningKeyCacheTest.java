@@ -0,0 +1,154 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.Test;
+
+import com.mtn.dep.Authentication;
+
+public class SigningKeyCacheTest {
+
+	private final String region = "eu-west-1";
+	private final String service = "execute-api";
+	private final HmacSha256Key key = HmacSha256Key.of(new byte[] { 1, 2, 3 });
+
+	@Test
+	public void testThatAStoredKeyIsReturned() {
+		SigningKeyCache cache = new SigningKeyCache(10);
+
+		assertNull(cache.get("secret", "20181022", region, service));
+
+		cache.put("secret", "20181022", region, service, key);
+
+		assertNotNull(cache.get("secret", "20181022", region, service));
+		assertNull(cache.get("other", "20181022", region, service));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void testThatKeysExpireOnceTheirDateIsBeforeYesterday() {
+		MutableClock clock = new MutableClock(Instant.parse("2018-10-22T23:59:00Z"));
+		SigningKeyCache cache = new SigningKeyCache(10, clock);
+
+		cache.put("secret", "20181021", region, service, key);
+		cache.put("secret", "20181022", region, service, key);
+
+		clock.instant = Instant.parse("2018-10-23T00:01:00Z");
+
+		cache.put("secret", "20181023", region, service, key);
+
+		assertNull(cache.get("secret", "20181021", region, service));
+		assertNotNull(cache.get("secret", "20181022", region, service));
+		assertNotNull(cache.get("secret", "20181023", region, service));
+	}
+
+	@Test
+	public void testThatKeysForAnEarlierDateAreStored() {
+		SigningKeyCache cache = new SigningKeyCache(10, Clock.fixed(Instant.parse("2018-10-23T00:01:00Z"), ZoneOffset.UTC));
+
+		cache.put("secret", "20181023", region, service, key);
+		cache.put("secret", "20181022", region, service, key);
+
+		assertNotNull(cache.get("secret", "20181022", region, service));
+		assertNotNull(cache.get("secret", "20181023", region, service));
+	}
+
+	@Test
+	public void testThatAFutureDateDoesNotStopTodaysKeysFromBeingCached() {
+		SigningKeyCache cache = new SigningKeyCache(10, Clock.fixed(Instant.parse("2018-10-22T10:00:00Z"), ZoneOffset.UTC));
+
+		cache.put("secret", "20231022", region, service, key);
+		cache.put("secret", "20181022", region, service, key);
+
+		for (int i = 0; i < 1000; i++) {
+			assertNotNull(cache.get("secret", "20181022", region, service));
+		}
+
+		assertEquals(1000, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test
+	public void testThatAFutureDateDoesNotEvictTodaysKeys() {
+		SigningKeyCache cache = new SigningKeyCache(2, Clock.fixed(Instant.parse("2018-10-22T10:00:00Z"), ZoneOffset.UTC));
+
+		cache.put("secret", "20181022", region, service, key);
+		cache.put("other", "20181022", region, service, key);
+		cache.get("secret", "20181022", region, service);
+		cache.put("secret", "20231022", region, service, key);
+
+		assertNotNull(cache.get("secret", "20181022", region, service));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testThatTheCacheIsBounded() {
+		SigningKeyCache cache = new SigningKeyCache(5);
+
+		for (int i = 0; i < 20; i++) {
+			cache.put("secret" + i, "20181022", region, service, key);
+		}
+
+		assertEquals(5, cache.size());
+	}
+
+	@Test
+	public void testThatTheSigningKeyIsDerivedOncePerScope() {
+		ZonedDateTime timestamp = ZonedDateTime.of(LocalDate.of(2030, 1, 1), LocalTime.of(10, 0), ZoneId.of("UTC"));
+
+		try {
+			for (int i = 0; i < 3; i++) {
+				Authentication auth = DEPAuthentication
+					.builder()
+						.accessKey("CACHEKEY")
+						.accessSecret("CACHESECRET")
+						.httpMethod(HttpMethod.GET)
+						.requestPath("/subscription")
+						.timestamp(timestamp.plusMinutes(i))
+						.hostName("api.dep.mtn.co.za")
+					.build();
+
+				auth.createAuthenticationHeaders();
+			}
+		} catch (DEPValidationException e) {
+			fail("The DEPAuthentication object could not be built.");
+		}
+
+		assertNotNull(SigningKeyCache.shared().get("CACHESECRET", "20300101", region, service));
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant instant;
+
+		private MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.mtn.dep.exception.PayloadReadException;
+
+public class SigningMetricsTest {
+
+	private final Instant timestamp = Instant.parse("2018-10-22T12:59:51Z");
+
+	@Test
+	public void testThatEveryStageIsRecorded() throws DEPValidationException {
+		RecordingMetrics metrics = new RecordingMetrics();
+		DEPSigner signer = buildSigner("METRICSSECRET1", metrics);
+
+		signer.sign(HttpMethod.POST, "/subscription", null, "{\"one\":\"one\"}", timestamp);
+		signer.sign(HttpMethod.POST, "/subscription", null, "{\"one\":\"one\"}", timestamp);
+
+		assertEquals(2, metrics.payloadHashings.get());
+		assertEquals(13, metrics.payloadSize.get());
+		assertEquals(2, metrics.canonicalizations.get());
+		// The signing key is derived for the first request and reused from the signing scope for the second
+		assertEquals(1, metrics.keyDerivations.get());
+		assertEquals(1, metrics.keyCacheHits.get());
+		assertEquals(2, metrics.signatures.get());
+		assertNull(metrics.failure.get());
+	}
+
+	@Test
+	public void testThatTheSignatureIsNotChangedByMetrics() throws DEPValidationException {
+		String expected = buildSigner("TESTSECRET", null)
+				.sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null, timestamp).getAuthorizationString();
+		String actual = buildSigner("TESTSECRET", new RecordingMetrics())
+				.sign(HttpMethod.DELETE, "/subscription/50273440", null, (String) null, timestamp).getAuthorizationString();
+
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testThatNothingIsTimedWhenMetricsAreDisabled() throws DEPValidationException {
+		RecordingMetrics metrics = new RecordingMetrics() {
+			@Override
+			public boolean isEnabled() {
+				return false;
+			}
+		};
+
+		DEPSigner signer = buildSigner("METRICSSECRET2", metrics);
+
+		signer.sign(HttpMethod.POST, "/subscription", null, "{\"one\":\"one\"}", timestamp);
+		signer.sign(HttpMethod.POST, "/subscription", null, "{\"one\":\"one\"}", timestamp);
+
+		assertEquals(0, metrics.payloadHashings.get());
+		assertEquals(0, metrics.canonicalizations.get());
+		assertEquals(0, metrics.keyDerivations.get());
+		assertEquals(0, metrics.keyCacheHits.get());
+		assertEquals(0, metrics.signatures.get());
+	}
+
+	@Test
+	public void testThatFailuresAreRecordedAndRethrown() throws DEPValidationException {
+		RecordingMetrics metrics = new RecordingMetrics();
+		InputStream body = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("Connection reset");
+			}
+		};
+
+		try {
+			buildSigner("TESTSECRET", metrics).sign(HttpMethod.POST, "/subscription", null, Payload.of(body), timestamp);
+
+			fail("No exception was thrown for an unreadable body.");
+		} catch (PayloadReadException e) {
+			assertSame(e, metrics.failure.get());
+		}
+	}
+
+	private static DEPSigner buildSigner(String accessSecret, SigningMetrics metrics) throws DEPValidationException {
+		return DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret(accessSecret)
+				.hostName("api.dep.mtn.co.za")
+				.metrics(metrics)
+				.signingKeyCache(new SigningKeyCache(16))
+			.build();
+	}
+
+	private static class RecordingMetrics implements SigningMetrics {
+		private final AtomicInteger payloadHashings = new AtomicInteger();
+		private final AtomicLong payloadSize = new AtomicLong();
+		private final AtomicInteger canonicalizations = new AtomicInteger();
+		private final AtomicInteger keyDerivations = new AtomicInteger();
+		private final AtomicInteger keyCacheHits = new AtomicInteger();
+		private final AtomicInteger signatures = new AtomicInteger();
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		@Override
+		public void recordPayloadHashing(long nanos, long payloadSize) {
+			assertTrue(nanos >= 0);
+
+			this.payloadHashings.incrementAndGet();
+			this.payloadSize.set(payloadSize);
+		}
+
+		@Override
+		public void recordCanonicalization(long nanos) {
+			canonicalizations.incrementAndGet();
+		}
+
+		@Override
+		public void recordKeyDerivation(long nanos) {
+			keyDerivations.incrementAndGet();
+		}
+
+		@Override
+		public void recordKeyCacheHit() {
+			keyCacheHits.incrementAndGet();
+		}
+
+		@Override
+		public void recordSignature(long nanos) {
+			signatures.incrementAndGet();
+		}
+
+		@Override
+		public void recordFailure(Throwable cause) {
+			failure.set(cause);
+		}
+	}
+}
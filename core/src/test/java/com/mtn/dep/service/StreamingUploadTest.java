@@ -0,0 +1,154 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.time.Instant;
+
+import org.junit.Test;
+
+import com.mtn.dep.AuthenticationHeaders;
+
+public class StreamingUploadTest {
+
+	private final Instant timestamp = Instant.parse("2018-10-22T12:59:51Z");
+
+	@Test
+	public void testThatTheSeedSignatureIsCreatedWithoutTheBody() throws DEPValidationException {
+		StreamingUpload upload = buildSigner().signStreaming(HttpMethod.POST, "/provisioning", null, 20000, timestamp);
+		AuthenticationHeaders headers = upload.getHeaders();
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-content-sha256;x-amz-date;x-amz-decoded-content-length, Signature=485439df109cb04a1c49fe849efd196c27b1e974375d3273c4b4bed27180afaf", headers.getAuthorizationString());
+		assertEquals("20181022T125951Z", headers.getXAmzDate());
+		assertEquals("STREAMING-AWS4-HMAC-SHA256-PAYLOAD", headers.getXAmzContentSha256());
+	}
+
+	@Test
+	public void testThatAnUnknownDecodedContentLengthIsNotSigned() throws DEPValidationException {
+		StreamingUpload upload = buildSigner().signStreaming(HttpMethod.POST, "/provisioning", null, -1, timestamp);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-content-sha256;x-amz-date, Signature=ee6adc78a4c585137aadf75a4285e1faf6d2be298f887e56daef981ed0ec7a4a", upload.getHeaders().getAuthorizationString());
+	}
+
+	@Test
+	public void testThatTheBodyIsEncodedInSignedChunks() throws Exception {
+		StreamingUpload upload = buildSigner().signStreaming(HttpMethod.POST, "/provisioning", null, 20000, timestamp);
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		try (OutputStream out = upload.wrap(body)) {
+			byte[] data = createData(20000);
+
+			out.write(data, 0, 100);
+			out.write(data[100]);
+			out.write(data, 101, data.length - 101);
+		}
+
+		String encoded = new String(body.toByteArray(), "ISO-8859-1");
+
+		assertEquals(20352, body.size());
+		assertEquals(upload.getContentLength(), body.size());
+		assertEquals("177ca69488abe03d0af34612a92f19817952bcfb963328dd7feadc5b7e02ebf1", sha256Hex(body.toByteArray()));
+		assertTrue(encoded.startsWith("2000;chunk-signature="));
+		assertTrue(encoded.endsWith("0;chunk-signature=4c04e04f20aa353079b66521046b6f102d88a8923fbd0e465c7bdca702172297\r\n\r\n"));
+	}
+
+	@Test
+	public void testThatTheChannelWrapperMatchesTheStreamWrapper() throws Exception {
+		DEPSigner signer = buildSigner();
+		byte[] data = createData(20000);
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+		try (OutputStream out = signer.signStreaming(HttpMethod.POST, "/provisioning", null, -1, timestamp).wrap(expected)) {
+			out.write(data);
+		}
+
+		try (WritableByteChannel channel = signer.signStreaming(HttpMethod.POST, "/provisioning", null, -1, timestamp).wrap(Channels.newChannel(actual))) {
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+
+			while (buffer.hasRemaining()) {
+				ByteBuffer slice = buffer.slice();
+
+				slice.limit(Math.min(slice.remaining(), 3000));
+
+				buffer.position(buffer.position() + channel.write(slice));
+			}
+		}
+
+		assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+	}
+
+	@Test
+	public void testThatTheContentLengthCoversEveryChunk() {
+		assertEquals(86, ChunkEncoder.getEncodedLength(0, StreamingUpload.MINIMUM_CHUNK_SIZE));
+		assertEquals(1 + 17 + 64 + 2 + 1 + 2 + 86, ChunkEncoder.getEncodedLength(1, StreamingUpload.MINIMUM_CHUNK_SIZE));
+		assertEquals(20352, ChunkEncoder.getEncodedLength(20000, StreamingUpload.MINIMUM_CHUNK_SIZE));
+		assertEquals(2 * (5 + 17 + 64 + 2 + 65536 + 2) + 86, ChunkEncoder.getEncodedLength(131072, StreamingUpload.DEFAULT_CHUNK_SIZE));
+	}
+
+	@Test
+	public void testThatAShortBodyIsRejected() throws Exception {
+		OutputStream out = buildSigner().signStreaming(HttpMethod.POST, "/provisioning", null, 100, timestamp).wrap(new ByteArrayOutputStream());
+
+		out.write(createData(99));
+
+		try {
+			out.close();
+
+			fail("No exception was thrown for a body that is shorter than the decoded content length.");
+		} catch (IOException e) {
+			assertEquals("Only 99 of the 100 bytes of the payload were written.", e.getMessage());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testThatALongBodyIsRejected() throws Exception {
+		buildSigner().signStreaming(HttpMethod.POST, "/provisioning", null, 100, timestamp).wrap(new ByteArrayOutputStream()).write(createData(101));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testThatTheBodyCanOnlyBeWrappedOnce() throws DEPValidationException {
+		StreamingUpload upload = buildSigner().signStreaming(HttpMethod.POST, "/provisioning", null, 100, timestamp);
+
+		upload.wrap(new ByteArrayOutputStream());
+		upload.wrap(new ByteArrayOutputStream());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testThatTheChunkSizeHasAMinimum() throws DEPValidationException {
+		DEPSigner.builder().accessKey("TESTKEY").accessSecret("TESTSECRET").hostName("api.dep.mtn.co.za").chunkSize(1024).build();
+	}
+
+	private static byte[] createData(int length) {
+		byte[] data = new byte[length];
+
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) (i % 251);
+		}
+
+		return data;
+	}
+
+	private static String sha256Hex(byte[] data) throws Exception {
+		return CryptoContext.toHex(MessageDigest.getInstance("SHA-256").digest(data));
+	}
+
+	private DEPSigner buildSigner() throws DEPValidationException {
+		return DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+				.chunkSize(StreamingUpload.MINIMUM_CHUNK_SIZE)
+			.build();
+	}
+}
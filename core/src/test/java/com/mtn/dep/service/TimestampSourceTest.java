@@ -0,0 +1,62 @@
+package com.mtn.dep.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+public class TimestampSourceTest {
+
+	@Test
+	public void testThatTheTimestampIsFormattedInUTC() {
+		TimestampSource.Timestamp timestamp = TimestampSource.of(Clock.fixed(Instant.parse("2018-10-22T02:09:05.000000428Z"), ZoneOffset.ofHours(2))).now();
+
+		assertEquals("20181022T020905Z", timestamp.getAmzDate());
+		assertEquals("20181022", timestamp.getRequestDate());
+		assertEquals("20181022/eu-west-1/execute-api/aws4_request", timestamp.getCredentialScope());
+	}
+
+	@Test
+	public void testThatTheTimestampIsReusedWithinTheSameSecond() {
+		TimestampSource source = TimestampSource.of(Clock.systemUTC());
+
+		TimestampSource.Timestamp first = source.at(Instant.parse("2018-10-22T12:59:51.000000428Z"));
+		TimestampSource.Timestamp second = source.at(Instant.parse("2018-10-22T12:59:51.999Z"));
+
+		assertSame(first, second);
+	}
+
+	@Test
+	public void testThatTheCredentialScopeIsReusedWithinTheSameDay() {
+		TimestampSource source = TimestampSource.of(Clock.systemUTC());
+
+		TimestampSource.Timestamp first = source.at(Instant.parse("2018-10-22T12:59:51Z"));
+		TimestampSource.Timestamp second = source.at(Instant.parse("2018-10-22T23:59:59Z"));
+
+		assertNotSame(first, second);
+		assertEquals("20181022T235959Z", second.getAmzDate());
+		assertSame(first.getCredentialScope(), second.getCredentialScope());
+	}
+
+	@Test
+	public void testThatTheDateChangesAtMidnight() {
+		TimestampSource source = TimestampSource.of(Clock.systemUTC());
+
+		source.at(Instant.parse("2018-12-31T23:59:59Z"));
+
+		TimestampSource.Timestamp timestamp = source.at(Instant.parse("2019-01-01T00:00:00Z"));
+
+		assertEquals("20190101T000000Z", timestamp.getAmzDate());
+		assertEquals("20190101/eu-west-1/execute-api/aws4_request", timestamp.getCredentialScope());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testThatTheClockIsMandatory() {
+		TimestampSource.of(null);
+	}
+}
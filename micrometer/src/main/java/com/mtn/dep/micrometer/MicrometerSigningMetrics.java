@@ -0,0 +1,152 @@
+package com.mtn.dep.micrometer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.mtn.dep.service.SigningMetrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ *
+ * Publishes the signing timings to a Micrometer MeterRegistry. Every stage of signing is recorded by
+ * the dep.signing.stage timer, tagged with the stage, and publishes a percentile histogram so that the
+ * p99 and p999 latencies can be aggregated across instances. The size of hashed payloads, the hits and
+ * misses of the signing key cache and the failures, tagged with the exception, are recorded as well.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class MicrometerSigningMetrics implements SigningMetrics {
+
+	static final String STAGE_TIMER = "dep.signing.stage";
+	static final String PAYLOAD_SIZE = "dep.signing.payload.size";
+	static final String KEY_CACHE = "dep.signing.key.cache";
+	static final String FAILURES = "dep.signing.failures";
+
+	private final MeterRegistry registry;
+	private final Tags tags;
+
+	private final Timer payloadHashing;
+	private final Timer canonicalization;
+	private final Timer keyDerivation;
+	private final Timer signature;
+	private final DistributionSummary payloadSize;
+	private final Counter keyCacheHits;
+	private final Counter keyCacheMisses;
+	private final ConcurrentMap<Class<?>, Counter> failures = new ConcurrentHashMap<>();
+
+	/**
+	 * @param registry The registry the meters are registered with.
+	 */
+	public MicrometerSigningMetrics(MeterRegistry registry) {
+		this(registry, Tags.empty());
+	}
+
+	/**
+	 * @param registry The registry the meters are registered with.
+	 * @param tags The tags added to every meter, for example to tell the signers of different clients apart.
+	 */
+	public MicrometerSigningMetrics(MeterRegistry registry, Iterable<Tag> tags) {
+		if (registry == null) {
+			throw new IllegalArgumentException("No registry provided. The registry is mandatory and cannot be null.");
+		}
+
+		this.registry = registry;
+		this.tags = Tags.of(tags);
+
+		this.payloadHashing = stageTimer("payload_hashing");
+		this.canonicalization = stageTimer("canonicalization");
+		this.keyDerivation = stageTimer("key_derivation");
+		this.signature = stageTimer("signature");
+
+		this.payloadSize = DistributionSummary
+				.builder(PAYLOAD_SIZE)
+					.description("The size of the hashed request payloads")
+					.baseUnit("bytes")
+					.tags(this.tags)
+				.register(registry);
+
+		this.keyCacheHits = keyCacheCounter("hit");
+		this.keyCacheMisses = keyCacheCounter("miss");
+	}
+
+	@Override
+	public void recordPayloadHashing(long nanos, long payloadSize) {
+		payloadHashing.record(nanos, TimeUnit.NANOSECONDS);
+
+		if (payloadSize >= 0) {
+			this.payloadSize.record(payloadSize);
+		}
+	}
+
+	@Override
+	public void recordCanonicalization(long nanos) {
+		canonicalization.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void recordKeyDerivation(long nanos) {
+		keyCacheMisses.increment();
+		keyDerivation.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void recordKeyCacheHit() {
+		keyCacheHits.increment();
+	}
+
+	@Override
+	public void recordSignature(long nanos) {
+		signature.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void recordFailure(Throwable cause) {
+		failureCounter(cause.getClass()).increment();
+	}
+
+	/**
+	 * @return The failure counter of the exception type, which is only built and registered the first time
+	 * the type fails, so that a burst of failures does not look it up in the registry every time.
+	 */
+	Counter failureCounter(Class<?> type) {
+		Counter result = failures.get(type);
+
+		if (result == null) {
+			result = failures.computeIfAbsent(type, key -> Counter
+					.builder(FAILURES)
+						.description("The number of requests that could not be signed")
+						.tags(tags)
+						.tag("exception", key.getSimpleName())
+					.register(registry));
+		}
+
+		return result;
+	}
+
+	private Timer stageTimer(String stage) {
+		return Timer
+				.builder(STAGE_TIMER)
+					.description("The time spent in a stage of signing a request")
+					.tags(tags)
+					.tag("stage", stage)
+					.publishPercentileHistogram()
+				.register(registry);
+	}
+
+	private Counter keyCacheCounter(String result) {
+		return Counter
+				.builder(KEY_CACHE)
+					.description("The number of signing key lookups")
+					.tags(tags)
+					.tag("result", result)
+				.register(registry);
+	}
+}
@@ -0,0 +1,56 @@
+package com.mtn.dep.micrometer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+
+import org.junit.Test;
+
+import com.mtn.dep.service.DEPSigner;
+import com.mtn.dep.service.DEPValidationException;
+import com.mtn.dep.service.HttpMethod;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MicrometerSigningMetricsTest {
+
+	@Test
+	public void testThatEveryStageIsPublished() throws DEPValidationException {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		DEPSigner signer = DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+				.metrics(new MicrometerSigningMetrics(registry, Tags.of("client", "test")))
+			.build();
+
+		signer.sign(HttpMethod.POST, "/subscription", null, "{\"one\":\"one\"}", Instant.parse("2018-10-22T12:59:51Z"));
+
+		assertEquals(1, registry.get(MicrometerSigningMetrics.STAGE_TIMER).tags("stage", "payload_hashing", "client", "test").timer().count());
+		assertEquals(1, registry.get(MicrometerSigningMetrics.STAGE_TIMER).tags("stage", "canonicalization").timer().count());
+		assertEquals(1, registry.get(MicrometerSigningMetrics.STAGE_TIMER).tags("stage", "signature").timer().count());
+		assertEquals(13, registry.get(MicrometerSigningMetrics.PAYLOAD_SIZE).summary().totalAmount(), 0);
+
+		double lookups = registry.get(MicrometerSigningMetrics.KEY_CACHE).tags("result", "hit").counter().count()
+				+ registry.get(MicrometerSigningMetrics.KEY_CACHE).tags("result", "miss").counter().count();
+
+		assertEquals(1, lookups, 0);
+	}
+
+	@Test
+	public void testThatFailuresAreTaggedWithTheException() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		MicrometerSigningMetrics metrics = new MicrometerSigningMetrics(registry);
+
+		metrics.recordFailure(new IllegalStateException());
+		metrics.recordFailure(new IllegalStateException());
+
+		assertEquals(2, registry.get(MicrometerSigningMetrics.FAILURES).tags("exception", "IllegalStateException").counter().count(), 0);
+		assertSame(metrics.failureCounter(IllegalStateException.class), metrics.failureCounter(IllegalStateException.class));
+		assertTrue(metrics.isEnabled());
+	}
+}
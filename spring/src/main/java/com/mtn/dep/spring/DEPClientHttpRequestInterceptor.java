@@ -0,0 +1,50 @@
+package com.mtn.dep.spring;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.mtn.dep.service.DEPSigner;
+import com.mtn.dep.service.Payload;
+
+/**
+ *
+ * A RestTemplate interceptor that adds the Authorization and X-Amz-Date headers to every request. The
+ * serialised body is hashed straight from the byte array RestTemplate hands over, without turning it
+ * into a String.
+ *
+ * <pre>
+ * restTemplate.getInterceptors().add(new DEPClientHttpRequestInterceptor(signer));
+ * </pre>
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class DEPClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	private final DEPSigner signer;
+
+	/**
+	 * @param signer The signer to sign the requests with.
+	 */
+	public DEPClientHttpRequestInterceptor(DEPSigner signer) {
+		if (signer == null) {
+			throw new IllegalArgumentException("No signer provided. The signer is mandatory and cannot be null.");
+		}
+
+		this.signer = signer;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		Payload payload = body != null && body.length > 0 ? Payload.of(ByteBuffer.wrap(body)) : null;
+
+		SpringRequestSigner.sign(signer, request.getMethod(), request.getURI(), payload, request.getHeaders());
+
+		return execution.execute(request, body);
+	}
+}
@@ -0,0 +1,114 @@
+package com.mtn.dep.spring;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.mtn.dep.service.DEPSigner;
+import com.mtn.dep.service.Payload;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ *
+ * A WebClient filter that adds the Authorization and X-Amz-Date headers to every request. The headers
+ * are generated once the body has been encoded, right before it is written: the DataBuffers of the body
+ * are collected and hashed in place through their ByteBuffer views, direct (Netty) buffers included, and
+ * are then written as they are. The body is never copied or turned into a String.
+ *
+ * <pre>
+ * WebClient client = WebClient.builder().filter(new DEPExchangeFilterFunction(signer)).build();
+ * </pre>
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+public final class DEPExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private final DEPSigner signer;
+
+	/**
+	 * @param signer The signer to sign the requests with.
+	 */
+	public DEPExchangeFilterFunction(DEPSigner signer) {
+		if (signer == null) {
+			throw new IllegalArgumentException("No signer provided. The signer is mandatory and cannot be null.");
+		}
+
+		this.signer = signer;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		ClientRequest signed = ClientRequest.from(request)
+				.body((outputMessage, context) -> request.body().insert(new SigningRequestDecorator(outputMessage, request), context))
+				.build();
+
+		return next.exchange(signed);
+	}
+
+	private final class SigningRequestDecorator extends ClientHttpRequestDecorator {
+		private final ClientRequest request;
+
+		private SigningRequestDecorator(ClientHttpRequest delegate, ClientRequest request) {
+			super(delegate);
+
+			this.request = request;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			return Flux.from(body).collectList().flatMap(buffers -> {
+				try {
+					sign(buffers);
+				} catch (RuntimeException e) {
+					buffers.forEach(DataBufferUtils::release);
+
+					return Mono.error(e);
+				}
+
+				return super.writeWith(Flux.fromIterable(buffers));
+			});
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return writeWith(Flux.from(body).concatMap(Flux::from));
+		}
+
+		@Override
+		public Mono<Void> setComplete() {
+			return Mono.defer(() -> {
+				sign(null);
+
+				return super.setComplete();
+			});
+		}
+
+		private void sign(List<? extends DataBuffer> buffers) {
+			Payload payload = null;
+
+			if (buffers != null && !buffers.isEmpty()) {
+				ByteBuffer[] body = new ByteBuffer[buffers.size()];
+
+				for (int i = 0; i < body.length; i++) {
+					body[i] = buffers.get(i).asByteBuffer();
+				}
+
+				payload = Payload.of(body);
+			}
+
+			SpringRequestSigner.sign(signer, request.method(), request.url(), payload, getHeaders());
+		}
+	}
+}
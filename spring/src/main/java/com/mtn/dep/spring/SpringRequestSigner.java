@@ -0,0 +1,56 @@
+package com.mtn.dep.spring;
+
+import java.net.URI;
+
+import org.springframework.http.HttpHeaders;
+
+import com.mtn.dep.AuthenticationHeaders;
+import com.mtn.dep.service.DEPSigner;
+import com.mtn.dep.service.HttpMethod;
+import com.mtn.dep.service.Payload;
+import com.mtn.dep.service.QueryStringProcessor;
+
+/**
+ *
+ * Signs a Spring http request with a DEPSigner and adds the generated headers to it. Shared by the
+ * WebClient filter and the RestTemplate interceptor.
+ *
+ * @since 1.8
+ * @version 1.2.0
+ */
+final class SpringRequestSigner {
+
+	static final String X_AMZ_DATE = "X-Amz-Date";
+	static final String X_AMZ_CONTENT_SHA256 = "X-Amz-Content-Sha256";
+
+	private SpringRequestSigner() {}
+
+	/**
+	 * @param signer The signer to sign the request with.
+	 * @param method The http method of the request.
+	 * @param uri The URI of the request. Its raw path and query form part of the canonical request.
+	 * @param body The body of the request, or null if there is none.
+	 * @param headers The headers of the request, to which the generated headers are added.
+	 * @throws IllegalArgumentException Thrown if the http method is not supported by the DEP platform.
+	 */
+	static void sign(DEPSigner signer, org.springframework.http.HttpMethod method, URI uri, Payload body, HttpHeaders headers) {
+		String requestPath = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+		AuthenticationHeaders result = signer.sign(toHttpMethod(method), requestPath, QueryStringProcessor.parse(uri.getRawQuery()), body);
+
+		headers.set(HttpHeaders.AUTHORIZATION, result.getAuthorizationString());
+		headers.set(X_AMZ_DATE, result.getXAmzDate());
+
+		if (result.getXAmzContentSha256() != null) {
+			headers.set(X_AMZ_CONTENT_SHA256, result.getXAmzContentSha256());
+		}
+	}
+
+	private static HttpMethod toHttpMethod(org.springframework.http.HttpMethod method) {
+		try {
+			return HttpMethod.valueOf(method.name());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("The http method " + method + " is not supported by the DEP platform.", e);
+		}
+	}
+}
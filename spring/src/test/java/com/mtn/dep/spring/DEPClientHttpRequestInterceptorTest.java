@@ -0,0 +1,61 @@
+package com.mtn.dep.spring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import com.mtn.dep.service.DEPSigner;
+import com.mtn.dep.service.DEPValidationException;
+
+public class DEPClientHttpRequestInterceptorTest {
+
+	@Test
+	public void testThatTheHeadersAreAddedForAPOSTWithABody() throws Exception {
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST, URI.create("https://api.dep.mtn.co.za/subscription"));
+
+		intercept("2018-10-22T12:59:51.000000428Z", request, "{\"one\":\"one\"}".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=e28d5a3de0973c0cd7cd5ce86a87157897f118ea85791f540819d0201771cd3b", request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+		assertEquals("20181022T125951Z", request.getHeaders().getFirst("X-Amz-Date"));
+		assertNull(request.getHeaders().getFirst("X-Amz-Content-Sha256"));
+	}
+
+	@Test
+	public void testThatTheQueryStringFormsPartOfTheSignature() throws Exception {
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+				URI.create("https://api.dep.mtn.co.za/service/1?expand=subscription(status%3D2,page%3D1,svc_id%3D1)"));
+
+		intercept("2019-04-16T09:10:10.000000123Z", request, new byte[0]);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20190416/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=5344a4e4d60b2a0c86fce8dea98ffb40e74cddbf69f3b5e47c5b094b8a284334", request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testThatUnsupportedHttpMethodsAreRejected() throws Exception {
+		intercept("2019-04-16T09:10:10Z", new MockClientHttpRequest(HttpMethod.HEAD, URI.create("https://api.dep.mtn.co.za/service/1")), new byte[0]);
+	}
+
+	private void intercept(String timestamp, MockClientHttpRequest request, byte[] body) throws DEPValidationException, IOException {
+		DEPSigner signer = DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+				.clock(Clock.fixed(Instant.parse(timestamp), ZoneOffset.UTC))
+			.build();
+
+		new DEPClientHttpRequestInterceptor(signer).intercept(request, body, (signed, signedBody) -> new MockClientHttpResponse(new byte[0], org.springframework.http.HttpStatus.OK));
+	}
+}
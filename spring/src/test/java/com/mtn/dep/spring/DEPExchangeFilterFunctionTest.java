@@ -0,0 +1,68 @@
+package com.mtn.dep.spring;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import com.mtn.dep.service.DEPSigner;
+import com.mtn.dep.service.DEPValidationException;
+
+import reactor.core.publisher.Mono;
+
+public class DEPExchangeFilterFunctionTest {
+
+	@Test
+	public void testThatTheHeadersAreAddedForAPOSTWithABody() throws DEPValidationException {
+		ClientRequest request = ClientRequest
+			.method(HttpMethod.POST, URI.create("https://api.dep.mtn.co.za/subscription"))
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(BodyInserters.fromObject("{\"one\":\"one\"}"))
+			.build();
+
+		MockClientHttpRequest written = exchange("2018-10-22T12:59:51.000000428Z", request);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=e28d5a3de0973c0cd7cd5ce86a87157897f118ea85791f540819d0201771cd3b", written.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+		assertEquals("20181022T125951Z", written.getHeaders().getFirst("X-Amz-Date"));
+		assertEquals("{\"one\":\"one\"}", written.getBody().map(buffer -> StandardCharsets.UTF_8.decode(buffer.asByteBuffer()).toString()).reduce(String::concat).block());
+	}
+
+	@Test
+	public void testThatTheHeadersAreAddedForARequestWithoutABody() throws DEPValidationException {
+		ClientRequest request = ClientRequest.method(HttpMethod.DELETE, URI.create("https://api.dep.mtn.co.za/subscription/50273440")).build();
+
+		MockClientHttpRequest written = exchange("2018-10-22T12:59:51.000000428Z", request);
+
+		assertEquals("AWS4-HMAC-SHA256 Credential=TESTKEY/20181022/eu-west-1/execute-api/aws4_request, SignedHeaders=host;x-amz-date, Signature=b398ee70496cf3a43cc571431ea833090d58f20a0b1439109775d1e59c4106ca", written.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+	}
+
+	private MockClientHttpRequest exchange(String timestamp, ClientRequest request) throws DEPValidationException {
+		DEPSigner signer = DEPSigner
+			.builder()
+				.accessKey("TESTKEY")
+				.accessSecret("TESTSECRET")
+				.hostName("api.dep.mtn.co.za")
+				.clock(Clock.fixed(Instant.parse(timestamp), ZoneOffset.UTC))
+			.build();
+
+		MockClientHttpRequest written = new MockClientHttpRequest(request.method(), request.url());
+
+		new DEPExchangeFilterFunction(signer)
+			.filter(request, signed -> signed.writeTo(written, ExchangeStrategies.withDefaults()).then(Mono.empty()))
+			.block();
+
+		return written;
+	}
+}